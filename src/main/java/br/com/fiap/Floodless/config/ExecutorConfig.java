@@ -0,0 +1,69 @@
+package br.com.fiap.Floodless.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${floodless.enriquecimento.threads:4}")
+    private int threads;
+
+    @Value("${floodless.enriquecimento.capacidade-fila:500}")
+    private int capacidadeFila;
+
+    @Value("${floodless.notificacoes.stream.threads:2}")
+    private int threadsStream;
+
+    @Value("${floodless.notificacoes.stream.capacidade-fila:1000}")
+    private int capacidadeFilaStream;
+
+    @Value("${floodless.alertas.particoes:4}")
+    private int particoesAlertas;
+
+    @Value("${floodless.alertas.timeout-encerramento-ms:10000}")
+    private long timeoutEncerramentoAlertas;
+
+    // Executor do enriquecimento de regiões criadas ou alteradas em modo assíncrono
+    @Bean(name = "enriquecimentoExecutor")
+    public ThreadPoolTaskExecutor enriquecimentoExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(capacidadeFila);
+        executor.setThreadNamePrefix("enriquecimento-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    // Envio das notificações aos clientes SSE, fora da thread que gravou as notificações
+    @Bean(name = "notificacaoStreamExecutor")
+    public ThreadPoolTaskExecutor notificacaoStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threadsStream);
+        executor.setMaxPoolSize(threadsStream);
+        executor.setQueueCapacity(capacidadeFilaStream);
+        executor.setThreadNamePrefix("notificacao-stream-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Consumidores das filas de alertas de risco: um para as evacuações e um por partição, sem fila
+    // própria. O AlertaRiscoService para os consumidores e guarda o que sobrou antes deste encerramento
+    @Bean(name = "alertaRiscoExecutor")
+    public ThreadPoolTaskExecutor alertaRiscoExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(particoesAlertas + 1);
+        executor.setMaxPoolSize(particoesAlertas + 1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("alertas-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(timeoutEncerramentoAlertas);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,9 +1,14 @@
 package br.com.fiap.Floodless.controller;
 
+import br.com.fiap.Floodless.dto.ContagemNaoLidasDTO;
+import br.com.fiap.Floodless.dto.EnvioNotificacaoDTO;
+import br.com.fiap.Floodless.dto.NotificacaoMoradoresRequestDTO;
 import br.com.fiap.Floodless.dto.NotificacaoRequestDTO;
 import br.com.fiap.Floodless.dto.NotificacaoResponseDTO;
+import br.com.fiap.Floodless.dto.PaginaNotificacoesDTO;
 import br.com.fiap.Floodless.model.entities.Notificacao;
 import br.com.fiap.Floodless.service.NotificacaoService;
+import br.com.fiap.Floodless.service.TransmissaoNotificacaoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,12 +16,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/notificacoes")
@@ -26,56 +32,99 @@ public class NotificacaoController {
     @Autowired
     private NotificacaoService notificacaoService;
 
+    @Autowired
+    private TransmissaoNotificacaoService transmissaoNotificacaoService;
+
     @GetMapping
-    @Operation(summary = "Listar todas as notificações", description = "Retorna uma lista com todas as notificações ordenadas por urgência e data de criação")
-    @ApiResponse(responseCode = "200", description = "Lista de notificações retornada com sucesso")
-    public ResponseEntity<List<NotificacaoResponseDTO>> listarTodas() {
-        List<NotificacaoResponseDTO> notificacoes = notificacaoService.buscarTodas()
-            .stream()
-            .map(NotificacaoResponseDTO::fromEntity)
-            .toList();
-        return ResponseEntity.ok(notificacoes);
+    @Operation(summary = "Listar todas as notificações", description = "Retorna uma página de notificações ordenadas por urgência e data de criação. Use o proximoCursor da resposta para buscar a página seguinte")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página de notificações retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido")
+    })
+    public ResponseEntity<PaginaNotificacoesDTO> listarTodas(
+            @Parameter(description = "Cursor da página, retornado na página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de notificações por página (máximo 100)") @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(notificacaoService.buscarTodas(cursor, tamanho));
     }
 
     @GetMapping("/nao-lidas")
-    @Operation(summary = "Listar notificações não lidas", description = "Retorna uma lista com todas as notificações não lidas ordenadas por urgência e data")
-    @ApiResponse(responseCode = "200", description = "Lista de notificações não lidas retornada com sucesso")
-    public ResponseEntity<List<NotificacaoResponseDTO>> listarNaoLidas() {
-        List<NotificacaoResponseDTO> notificacoes = notificacaoService.buscarNaoLidas()
-            .stream()
-            .map(NotificacaoResponseDTO::fromEntity)
-            .toList();
-        return ResponseEntity.ok(notificacoes);
+    @Operation(summary = "Listar notificações não lidas", description = "Retorna uma página de notificações não lidas ordenadas por urgência e data")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página de notificações não lidas retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido")
+    })
+    public ResponseEntity<PaginaNotificacoesDTO> listarNaoLidas(
+            @Parameter(description = "Cursor da página, retornado na página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de notificações por página (máximo 100)") @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(notificacaoService.buscarNaoLidas(cursor, tamanho));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Receber notificações em tempo real",
+               description = "Envia eventos SSE \"notificacao\" a cada notificação criada para o usuário ou para a região. " +
+                             "Ao reconectar com o cabeçalho Last-Event-ID, as notificações perdidas são reenviadas; " +
+                             "se passarem do limite, o evento \"reenvio-truncado\" encerra a conexão e a próxima reconexão continua o reenvio")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Fluxo de eventos iniciado"),
+        @ApiResponse(responseCode = "400", description = "Informe somente a região ou somente o usuário, ou Last-Event-ID inválido"),
+        @ApiResponse(responseCode = "404", description = "Região ou usuário não encontrado")
+    })
+    public SseEmitter stream(
+            @Parameter(description = "ID da região (notificações da região inteira)") @RequestParam(required = false) Long regiaoId,
+            @Parameter(description = "ID do usuário (notificações pessoais)") @RequestParam(required = false) Long usuarioId,
+            @Parameter(description = "ID do último evento recebido") @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+        return transmissaoNotificacaoService.inscrever(regiaoId, usuarioId, ultimoEventoId);
     }
 
     @GetMapping("/regiao/{regiaoId}")
-    @Operation(summary = "Buscar notificações por região", description = "Retorna uma lista de notificações de uma região específica")
+    @Operation(summary = "Buscar notificações por região", description = "Retorna uma página de notificações de uma região específica ordenadas por urgência e data")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "Lista de notificações da região retornada com sucesso"),
-        @ApiResponse(responseCode = "404", description = "Região não encontrada")
+        @ApiResponse(responseCode = "200", description = "Página de notificações da região retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido")
     })
-    public ResponseEntity<List<NotificacaoResponseDTO>> buscarPorRegiao(
-            @Parameter(description = "ID da região") @PathVariable Long regiaoId) {
-        List<NotificacaoResponseDTO> notificacoes = notificacaoService.buscarPorRegiao(regiaoId)
-            .stream()
-            .map(NotificacaoResponseDTO::fromEntity)
-            .toList();
-        return ResponseEntity.ok(notificacoes);
+    public ResponseEntity<PaginaNotificacoesDTO> buscarPorRegiao(
+            @Parameter(description = "ID da região") @PathVariable Long regiaoId,
+            @Parameter(description = "Cursor da página, retornado na página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de notificações por página (máximo 100)") @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(notificacaoService.buscarPorRegiao(regiaoId, cursor, tamanho));
     }
 
     @GetMapping("/usuario/{usuarioId}")
-    @Operation(summary = "Buscar notificações por usuário", description = "Retorna uma lista de notificações de um usuário específico")
+    @Operation(summary = "Buscar notificações por usuário", description = "Retorna uma página de notificações de um usuário específico ordenadas por urgência e data")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página de notificações do usuário retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido")
+    })
+    public ResponseEntity<PaginaNotificacoesDTO> buscarPorUsuario(
+            @Parameter(description = "ID do usuário") @PathVariable Long usuarioId,
+            @Parameter(description = "Cursor da página, retornado na página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de notificações por página (máximo 100)") @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(notificacaoService.buscarPorUsuario(usuarioId, cursor, tamanho));
+    }
+
+    @GetMapping("/usuario/{usuarioId}/caixa-entrada")
+    @Operation(summary = "Caixa de entrada do usuário", description = "Retorna uma página com as notificações pessoais do usuário e as notificações da sua região, intercaladas por data de criação")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página da caixa de entrada retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido"),
+        @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+    })
+    public ResponseEntity<PaginaNotificacoesDTO> buscarCaixaEntrada(
+            @Parameter(description = "ID do usuário") @PathVariable Long usuarioId,
+            @Parameter(description = "Cursor da página, retornado na página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de notificações por página (máximo 100)") @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(notificacaoService.buscarCaixaEntrada(usuarioId, cursor, tamanho));
+    }
+
+    @GetMapping("/usuario/{usuarioId}/nao-lidas/count")
+    @Operation(summary = "Contar notificações não lidas", description = "Retorna a quantidade de notificações pessoais e da região ainda não lidas pelo usuário")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "Lista de notificações do usuário retornada com sucesso"),
+        @ApiResponse(responseCode = "200", description = "Contagem retornada com sucesso"),
         @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
     })
-    public ResponseEntity<List<NotificacaoResponseDTO>> buscarPorUsuario(
+    public ResponseEntity<ContagemNaoLidasDTO> contarNaoLidas(
             @Parameter(description = "ID do usuário") @PathVariable Long usuarioId) {
-        List<NotificacaoResponseDTO> notificacoes = notificacaoService.buscarPorUsuario(usuarioId)
-            .stream()
-            .map(NotificacaoResponseDTO::fromEntity)
-            .toList();
-        return ResponseEntity.ok(notificacoes);
+        return ResponseEntity.ok(notificacaoService.contarNaoLidas(usuarioId));
     }
 
     @PostMapping
@@ -104,15 +153,37 @@ public class NotificacaoController {
         return ResponseEntity.created(uri).body(NotificacaoResponseDTO.fromEntity(notificacao));
     }
 
+    @PostMapping("/regiao/{regiaoId}/moradores")
+    @Operation(summary = "Notificar moradores da região", description = "Cria uma notificação individual para cada morador da região que aceita receber alertas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Notificações enviadas com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Dados inválidos na criação da notificação"),
+        @ApiResponse(responseCode = "404", description = "Região não encontrada")
+    })
+    public ResponseEntity<EnvioNotificacaoDTO> notificarMoradores(
+            @Parameter(description = "ID da região") @PathVariable Long regiaoId,
+            @RequestBody @Valid NotificacaoMoradoresRequestDTO dto) {
+        EnvioNotificacaoDTO envio = notificacaoService.notificarMoradores(
+            dto.titulo(),
+            dto.mensagem(),
+            dto.tipo(),
+            regiaoId,
+            dto.urgente()
+        );
+        return ResponseEntity.ok(envio);
+    }
+
     @PatchMapping("/{id}/marcar-como-lida")
     @Operation(summary = "Marcar notificação como lida", description = "Marca uma notificação específica como lida")
     @ApiResponses({
         @ApiResponse(responseCode = "204", description = "Notificação marcada como lida com sucesso"),
-        @ApiResponse(responseCode = "404", description = "Notificação não encontrada")
+        @ApiResponse(responseCode = "400", description = "Usuário não informado para notificação da região ou de outro usuário"),
+        @ApiResponse(responseCode = "404", description = "Notificação ou usuário não encontrado")
     })
     public ResponseEntity<Void> marcarComoLida(
-            @Parameter(description = "ID da notificação") @PathVariable Long id) {
-        notificacaoService.marcarComoLida(id);
+            @Parameter(description = "ID da notificação") @PathVariable Long id,
+            @Parameter(description = "ID do usuário que leu (obrigatório para notificações da região)") @RequestParam(required = false) Long usuarioId) {
+        notificacaoService.marcarComoLida(id, usuarioId);
         return ResponseEntity.noContent().build();
     }
 
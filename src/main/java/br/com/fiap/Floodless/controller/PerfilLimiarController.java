@@ -0,0 +1,130 @@
+package br.com.fiap.Floodless.controller;
+
+import br.com.fiap.Floodless.dto.PerfilLimiarRequestDTO;
+import br.com.fiap.Floodless.dto.PerfilLimiarResponseDTO;
+import br.com.fiap.Floodless.dto.ReclassificacaoDTO;
+import br.com.fiap.Floodless.service.LimiarRiscoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/perfis-limiar")
+@Tag(name = "Perfis de Limiares", description = "API para gerenciamento dos limiares de risco por região ou cidade")
+public class PerfilLimiarController {
+
+    @Autowired
+    private LimiarRiscoService limiarRiscoService;
+
+    @GetMapping
+    @Operation(summary = "Listar perfis de limiares", 
+               description = "Retorna todos os perfis de limiares cadastrados")
+    @ApiResponse(responseCode = "200", 
+                description = "Lista de perfis recuperada com sucesso",
+                content = @Content(schema = @Schema(implementation = PerfilLimiarResponseDTO.class)))
+    public ResponseEntity<List<PerfilLimiarResponseDTO>> listar() {
+        return ResponseEntity.ok(limiarRiscoService.listar());
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Buscar perfil de limiares por ID", 
+               description = "Retorna um perfil de limiares específico")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Perfil encontrado com sucesso",
+                    content = @Content(schema = @Schema(implementation = PerfilLimiarResponseDTO.class))),
+        @ApiResponse(responseCode = "404", 
+                    description = "Perfil não encontrado",
+                    content = @Content)
+    })
+    public ResponseEntity<PerfilLimiarResponseDTO> buscarPorId(
+            @Parameter(description = "ID do perfil") 
+            @PathVariable Long id) {
+        return ResponseEntity.ok(limiarRiscoService.buscarPorId(id));
+    }
+
+    @PostMapping
+    @Operation(summary = "Criar perfil de limiares", 
+               description = "Cria um perfil para uma região ou cidade e reclassifica o risco de todas as regiões. " +
+                             "Se a reclassificação falhar, o perfil continua criado e o erro vem em erroReclassificacao")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", 
+                    description = "Perfil criado com sucesso",
+                    content = @Content(schema = @Schema(implementation = PerfilLimiarResponseDTO.class))),
+        @ApiResponse(responseCode = "400", 
+                    description = "Dados inválidos fornecidos",
+                    content = @Content),
+        @ApiResponse(responseCode = "404", 
+                    description = "Região não encontrada",
+                    content = @Content)
+    })
+    public ResponseEntity<PerfilLimiarResponseDTO> criar(
+            @RequestBody @Valid PerfilLimiarRequestDTO dto,
+            UriComponentsBuilder uriBuilder) {
+        PerfilLimiarResponseDTO perfil = limiarRiscoService.criar(dto);
+        URI uri = uriBuilder.path("/api/perfis-limiar/{id}").buildAndExpand(perfil.id()).toUri();
+        return ResponseEntity.created(uri).body(perfil);
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Atualizar perfil de limiares", 
+               description = "Atualiza um perfil e reclassifica o risco de todas as regiões. " +
+                             "Se a reclassificação falhar, o perfil continua atualizado e o erro vem em erroReclassificacao")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Perfil atualizado com sucesso",
+                    content = @Content(schema = @Schema(implementation = PerfilLimiarResponseDTO.class))),
+        @ApiResponse(responseCode = "400", 
+                    description = "Dados inválidos fornecidos",
+                    content = @Content),
+        @ApiResponse(responseCode = "404", 
+                    description = "Perfil não encontrado",
+                    content = @Content)
+    })
+    public ResponseEntity<PerfilLimiarResponseDTO> atualizar(
+            @Parameter(description = "ID do perfil") 
+            @PathVariable Long id,
+            @RequestBody @Valid PerfilLimiarRequestDTO dto) {
+        return ResponseEntity.ok(limiarRiscoService.atualizar(id, dto));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Deletar perfil de limiares", 
+               description = "Remove um perfil; as regiões afetadas voltam aos limiares da cidade ou padrão. " +
+                             "Retorna o perfil removido com o resultado da reclassificação")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Perfil deletado com sucesso",
+                    content = @Content(schema = @Schema(implementation = PerfilLimiarResponseDTO.class))),
+        @ApiResponse(responseCode = "404", 
+                    description = "Perfil não encontrado",
+                    content = @Content)
+    })
+    public ResponseEntity<PerfilLimiarResponseDTO> deletar(
+            @Parameter(description = "ID do perfil") 
+            @PathVariable Long id) {
+        return ResponseEntity.ok(limiarRiscoService.deletar(id));
+    }
+
+    @PostMapping("/reclassificar")
+    @Operation(summary = "Reclassificar regiões", 
+               description = "Reaplica os limiares vigentes ao nível de chuva atual de todas as regiões, sem consultar APIs externas")
+    @ApiResponse(responseCode = "200", 
+                description = "Reclassificação concluída",
+                content = @Content(schema = @Schema(implementation = ReclassificacaoDTO.class)))
+    public ResponseEntity<ReclassificacaoDTO> reclassificar() {
+        return ResponseEntity.ok(limiarRiscoService.reclassificarTodas());
+    }
+}
@@ -1,7 +1,13 @@
 package br.com.fiap.Floodless.controller;
 
+import br.com.fiap.Floodless.dto.ObservacaoClimaticaDTO;
+import br.com.fiap.Floodless.dto.PrevisaoRiscoDTO;
 import br.com.fiap.Floodless.dto.RegiaoRequestDTO;
 import br.com.fiap.Floodless.dto.RegiaoResponseDTO;
+import br.com.fiap.Floodless.dto.StatusEnriquecimentoDTO;
+import br.com.fiap.Floodless.service.EnriquecimentoRegiaoService;
+import br.com.fiap.Floodless.service.ObservacaoClimaticaService;
+import br.com.fiap.Floodless.service.PrevisaoRiscoService;
 import br.com.fiap.Floodless.service.RegiaoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,11 +18,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -27,13 +38,26 @@ public class RegiaoController {
     @Autowired
     private RegiaoService regiaoService;
 
+    @Autowired
+    private EnriquecimentoRegiaoService enriquecimentoRegiaoService;
+
+    @Autowired
+    private ObservacaoClimaticaService observacaoClimaticaService;
+
+    @Autowired
+    private PrevisaoRiscoService previsaoRiscoService;
+
     @PostMapping
     @Operation(summary = "Criar nova região", 
-               description = "Cria uma nova região e obtém automaticamente seus dados climáticos através de APIs externas")
+               description = "Cria uma nova região e obtém automaticamente seus dados climáticos através de APIs externas. " +
+                             "Com assincrono=true a região é salva imediatamente e os dados climáticos são obtidos em segundo plano")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", 
                     description = "Região criada com sucesso",
                     content = @Content(schema = @Schema(implementation = RegiaoResponseDTO.class))),
+        @ApiResponse(responseCode = "202", 
+                    description = "Região criada; dados climáticos em processamento (acompanhe pelo link do cabeçalho Location)",
+                    content = @Content(schema = @Schema(implementation = RegiaoResponseDTO.class))),
         @ApiResponse(responseCode = "400", 
                     description = "Dados inválidos fornecidos",
                     content = @Content),
@@ -43,7 +67,13 @@ public class RegiaoController {
     })
     public ResponseEntity<RegiaoResponseDTO> criar(
             @RequestBody @Valid RegiaoRequestDTO dto,
+            @Parameter(description = "Obtém os dados climáticos em segundo plano e responde 202 imediatamente")
+            @RequestParam(defaultValue = "false") boolean assincrono,
             UriComponentsBuilder uriBuilder) {
+        if (assincrono) {
+            RegiaoResponseDTO responseDTO = regiaoService.criarAssincronoDTO(dto);
+            return aceito(responseDTO, uriBuilder);
+        }
         RegiaoResponseDTO responseDTO = regiaoService.criarDTO(dto);
         URI uri = uriBuilder.path("/api/regioes/{id}").buildAndExpand(responseDTO.id()).toUri();
         return ResponseEntity.created(uri).body(responseDTO);
@@ -80,11 +110,15 @@ public class RegiaoController {
 
     @PutMapping("/{id}")
     @Operation(summary = "Atualizar região", 
-               description = "Atualiza os dados de uma região existente e recalcula seus dados climáticos")
+               description = "Atualiza os dados de uma região existente e recalcula seus dados climáticos. " +
+                             "Com assincrono=true os dados climáticos são recalculados em segundo plano")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", 
                     description = "Região atualizada com sucesso",
                     content = @Content(schema = @Schema(implementation = RegiaoResponseDTO.class))),
+        @ApiResponse(responseCode = "202", 
+                    description = "Região atualizada; dados climáticos em processamento (acompanhe pelo link do cabeçalho Location)",
+                    content = @Content(schema = @Schema(implementation = RegiaoResponseDTO.class))),
         @ApiResponse(responseCode = "400", 
                     description = "Dados inválidos fornecidos",
                     content = @Content),
@@ -95,11 +129,100 @@ public class RegiaoController {
     public ResponseEntity<RegiaoResponseDTO> atualizar(
             @Parameter(description = "ID da região a ser atualizada") 
             @PathVariable Long id,
-            @RequestBody @Valid RegiaoRequestDTO dto) {
+            @RequestBody @Valid RegiaoRequestDTO dto,
+            @Parameter(description = "Recalcula os dados climáticos em segundo plano e responde 202 imediatamente")
+            @RequestParam(defaultValue = "false") boolean assincrono,
+            UriComponentsBuilder uriBuilder) {
+        if (assincrono) {
+            return aceito(regiaoService.atualizarAssincronoDTO(id, dto), uriBuilder);
+        }
         RegiaoResponseDTO regiao = regiaoService.atualizarDTO(id, dto);
         return ResponseEntity.ok(regiao);
     }
 
+    @GetMapping("/{id}/status")
+    @Operation(summary = "Consultar status dos dados climáticos", 
+               description = "Retorna a situação da obtenção dos dados climáticos de uma região criada ou atualizada em modo assíncrono")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Status recuperado com sucesso",
+                    content = @Content(schema = @Schema(implementation = StatusEnriquecimentoDTO.class))),
+        @ApiResponse(responseCode = "404", 
+                    description = "Região não encontrada",
+                    content = @Content)
+    })
+    public ResponseEntity<StatusEnriquecimentoDTO> buscarStatus(
+            @Parameter(description = "ID da região") 
+            @PathVariable Long id) {
+        return ResponseEntity.ok(enriquecimentoRegiaoService.buscarStatus(id));
+    }
+
+    @GetMapping(value = "/{id}/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar status dos dados climáticos", 
+               description = "Envia eventos SSE \"status\" a cada mudança até o enriquecimento terminar (CONCLUIDO ou FALHOU)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Fluxo de eventos iniciado"),
+        @ApiResponse(responseCode = "404", 
+                    description = "Região não encontrada",
+                    content = @Content)
+    })
+    public SseEmitter acompanharStatus(
+            @Parameter(description = "ID da região") 
+            @PathVariable Long id) {
+        return enriquecimentoRegiaoService.inscrever(id);
+    }
+
+    @GetMapping("/{id}/previsao")
+    @Operation(summary = "Projeção de risco da região", 
+               description = "Retorna o nível de risco projetado hora a hora a partir da previsão horária de chuva " +
+                             "e a hora estimada em que a região chega a ALTO ou CRITICO. A projeção é calculada a cada atualização da região")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Projeção recuperada com sucesso",
+                    content = @Content(schema = @Schema(implementation = PrevisaoRiscoDTO.class))),
+        @ApiResponse(responseCode = "404", 
+                    description = "Região não encontrada ou ainda sem dados climáticos",
+                    content = @Content)
+    })
+    public ResponseEntity<PrevisaoRiscoDTO> previsao(
+            @Parameter(description = "ID da região") 
+            @PathVariable Long id) {
+        return ResponseEntity.ok(previsaoRiscoService.buscar(id));
+    }
+
+    @GetMapping(value = "/{id}/historico", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Histórico climático da região", 
+               description = "Retorna as observações registradas a cada consulta ao Open-Meteo no período informado, " +
+                             "em ordem cronológica. O resultado é transmitido à medida que é lido do banco")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Histórico recuperado com sucesso",
+                    content = @Content(schema = @Schema(implementation = ObservacaoClimaticaDTO.class))),
+        @ApiResponse(responseCode = "400", 
+                    description = "Período inválido",
+                    content = @Content),
+        @ApiResponse(responseCode = "404", 
+                    description = "Região não encontrada",
+                    content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> historico(
+            @Parameter(description = "ID da região") 
+            @PathVariable Long id,
+            @Parameter(description = "Início do período (padrão: 7 dias antes do fim)", example = "2024-03-13T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @Parameter(description = "Fim do período, exclusivo (padrão: agora)", example = "2024-03-20T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate) {
+        LocalDateTime fim = ate != null ? ate : LocalDateTime.now();
+        LocalDateTime inicio = de != null ? de : fim.minusDays(7);
+        if (!inicio.isBefore(fim)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(observacaoClimaticaService.historico(id, inicio, fim));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Deletar região", 
                description = "Remove uma região do sistema")
@@ -117,4 +240,9 @@ public class RegiaoController {
         regiaoService.deletar(id);
         return ResponseEntity.noContent().build();
     }
+
+    private ResponseEntity<RegiaoResponseDTO> aceito(RegiaoResponseDTO responseDTO, UriComponentsBuilder uriBuilder) {
+        URI status = uriBuilder.path("/api/regioes/{id}/status").buildAndExpand(responseDTO.id()).toUri();
+        return ResponseEntity.accepted().location(status).body(responseDTO);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,18 @@
+package br.com.fiap.Floodless.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "DTO com a quantidade de notificações não lidas de um usuário")
+public record ContagemNaoLidasDTO(
+    @Schema(description = "ID do usuário", example = "1")
+    Long usuarioId,
+
+    @Schema(description = "Notificações pessoais não lidas", example = "2")
+    long pessoais,
+
+    @Schema(description = "Notificações da região do usuário não lidas", example = "3")
+    long daRegiao,
+
+    @Schema(description = "Total de notificações não lidas", example = "5")
+    long total
+) {}
@@ -0,0 +1,15 @@
+package br.com.fiap.Floodless.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "DTO com o resultado do envio de uma notificação aos moradores de uma região")
+public record EnvioNotificacaoDTO(
+    @Schema(description = "ID da região", example = "1")
+    Long regiaoId,
+
+    @Schema(description = "Notificações criadas (uma por morador)", example = "50000")
+    int notificacoesEnviadas,
+
+    @Schema(description = "Duração em milissegundos", example = "3200")
+    long duracaoMs
+) {}
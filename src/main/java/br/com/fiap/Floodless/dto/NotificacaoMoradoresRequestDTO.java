@@ -0,0 +1,24 @@
+package br.com.fiap.Floodless.dto;
+
+import br.com.fiap.Floodless.model.enums.TipoNotificacao;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "DTO para envio de uma notificação a todos os moradores de uma região")
+public record NotificacaoMoradoresRequestDTO(
+    @Schema(description = "Título da notificação", example = "Alerta de Enchente")
+    @NotBlank(message = "Título é obrigatório")
+    String titulo,
+
+    @Schema(description = "Conteúdo da mensagem", example = "Risco de enchente na região. Procure abrigo.")
+    @NotBlank(message = "Mensagem é obrigatória")
+    String mensagem,
+
+    @Schema(description = "Tipo da notificação", example = "ALERTA_RISCO")
+    @NotNull(message = "Tipo de notificação é obrigatório")
+    TipoNotificacao tipo,
+
+    @Schema(description = "Indica se a notificação é urgente", example = "true", defaultValue = "false")
+    Boolean urgente
+) {}
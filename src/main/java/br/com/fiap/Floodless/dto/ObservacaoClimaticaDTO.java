@@ -0,0 +1,56 @@
+package br.com.fiap.Floodless.dto;
+
+import br.com.fiap.Floodless.model.entities.ObservacaoClimatica;
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.util.SerieHoraria;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "DTO com uma observação do histórico climático de uma região")
+public record ObservacaoClimaticaDTO(
+    @Schema(description = "Data e hora da consulta ao Open-Meteo", example = "2024-03-20T10:30:00")
+    LocalDateTime dataObservacao,
+
+    @Schema(description = "Temperatura em graus Celsius", example = "25.8")
+    Double temperatura,
+
+    @Schema(description = "Precipitação atual em milímetros", example = "1.2")
+    Double precipitacao,
+
+    @Schema(description = "Chuva atual em milímetros", example = "1.0")
+    Double chuva,
+
+    @Schema(description = "Pancadas de chuva em milímetros", example = "0.2")
+    Double pancadas,
+
+    @Schema(description = "Código WMO do tempo", example = "61")
+    Integer codigoTempo,
+
+    @Schema(description = "Nível de chuva calculado", example = "12.5")
+    Double nivelChuva,
+
+    @Schema(description = "Nível de risco calculado", example = "MODERADO")
+    NivelRisco nivelRisco,
+
+    @Schema(description = "Probabilidade de precipitação prevista por hora (%)")
+    double[] probabilidadeHoraria,
+
+    @Schema(description = "Precipitação prevista por hora (mm)")
+    double[] precipitacaoHoraria
+) {
+    public ObservacaoClimaticaDTO(ObservacaoClimatica observacao) {
+        this(
+            observacao.getDataObservacao(),
+            observacao.getTemperatura(),
+            observacao.getPrecipitacao(),
+            observacao.getChuva(),
+            observacao.getPancadas(),
+            observacao.getCodigoTempo(),
+            observacao.getNivelChuva(),
+            observacao.getNivelRisco(),
+            SerieHoraria.probabilidade(observacao.getSerieHoraria()),
+            SerieHoraria.precipitacao(observacao.getSerieHoraria())
+        );
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.fiap.Floodless.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "DTO com uma página de notificações")
+public record PaginaNotificacoesDTO(
+    @Schema(description = "Notificações da página, por urgência e data de criação")
+    List<NotificacaoResponseDTO> itens,
+
+    @Schema(description = "Cursor da próxima página; nulo na última página", example = "MXwyMDI0LTAzLTIwVDEwOjMwfDQy")
+    String proximoCursor
+) {}
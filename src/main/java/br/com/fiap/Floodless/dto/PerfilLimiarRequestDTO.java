@@ -0,0 +1,40 @@
+package br.com.fiap.Floodless.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+@Schema(description = "DTO para criação e atualização de perfis de limiares de risco. Informe a região ou a cidade/estado")
+public record PerfilLimiarRequestDTO(
+    @Schema(description = "Descrição do perfil", example = "Bairros ribeirinhos")
+    @Size(max = 100, message = "Descrição deve ter no máximo 100 caracteres")
+    String descricao,
+
+    @Schema(description = "ID da região à qual o perfil se aplica", example = "1")
+    Long regiaoId,
+
+    @Schema(description = "Cidade à qual o perfil se aplica (quando não há região)", example = "São Paulo")
+    @Size(max = 50, message = "Cidade deve ter no máximo 50 caracteres")
+    String cidade,
+
+    @Schema(description = "Estado da cidade", example = "SP")
+    @Pattern(regexp = "^[A-Z]{2}$", message = "Estado deve conter 2 letras maiúsculas")
+    String estado,
+
+    @Schema(description = "Nível de chuva acima do qual o risco é MODERADO", example = "20.0")
+    @NotNull(message = "Limiar moderado é obrigatório")
+    @Positive(message = "Limiar moderado deve ser positivo")
+    Double limiarModerado,
+
+    @Schema(description = "Nível de chuva acima do qual o risco é ALTO", example = "35.0")
+    @NotNull(message = "Limiar alto é obrigatório")
+    @Positive(message = "Limiar alto deve ser positivo")
+    Double limiarAlto,
+
+    @Schema(description = "Nível de chuva acima do qual o risco é CRITICO", example = "50.0")
+    @NotNull(message = "Limiar crítico é obrigatório")
+    @Positive(message = "Limiar crítico deve ser positivo")
+    Double limiarCritico
+) {}
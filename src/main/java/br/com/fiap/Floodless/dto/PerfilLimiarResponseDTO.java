@@ -0,0 +1,57 @@
+package br.com.fiap.Floodless.dto;
+
+import br.com.fiap.Floodless.model.entities.PerfilLimiar;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "DTO com os dados de um perfil de limiares de risco")
+public record PerfilLimiarResponseDTO(
+    @Schema(description = "ID do perfil", example = "1")
+    Long id,
+
+    @Schema(description = "Descrição do perfil", example = "Bairros ribeirinhos")
+    String descricao,
+
+    @Schema(description = "ID da região à qual o perfil se aplica", example = "1")
+    Long regiaoId,
+
+    @Schema(description = "Cidade à qual o perfil se aplica", example = "São Paulo")
+    String cidade,
+
+    @Schema(description = "Estado da cidade", example = "SP")
+    String estado,
+
+    @Schema(description = "Nível de chuva acima do qual o risco é MODERADO", example = "20.0")
+    Double limiarModerado,
+
+    @Schema(description = "Nível de chuva acima do qual o risco é ALTO", example = "35.0")
+    Double limiarAlto,
+
+    @Schema(description = "Nível de chuva acima do qual o risco é CRITICO", example = "50.0")
+    Double limiarCritico,
+
+    @Schema(description = "Resultado da reclassificação feita após criar, alterar ou remover o perfil (nulo nas consultas ou se ela falhou)")
+    ReclassificacaoDTO reclassificacao,
+
+    @Schema(description = "Erro da reclassificação; o perfil foi gravado e as regiões mantêm o nível anterior até a próxima reclassificação ou atualização",
+            example = "Perfil gravado, mas a reclassificação falhou: ...")
+    String erroReclassificacao
+) {
+    public PerfilLimiarResponseDTO(PerfilLimiar perfil) {
+        this(perfil, null, null);
+    }
+
+    public PerfilLimiarResponseDTO(PerfilLimiar perfil, ReclassificacaoDTO reclassificacao, String erroReclassificacao) {
+        this(
+            perfil.getId(),
+            perfil.getDescricao(),
+            perfil.getRegiaoId(),
+            perfil.getCidade(),
+            perfil.getEstado(),
+            perfil.getLimiarModerado(),
+            perfil.getLimiarAlto(),
+            perfil.getLimiarCritico(),
+            reclassificacao,
+            erroReclassificacao
+        );
+    }
+}
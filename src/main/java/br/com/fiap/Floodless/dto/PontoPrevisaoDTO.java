@@ -0,0 +1,18 @@
+package br.com.fiap.Floodless.dto;
+
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "DTO com o nível de chuva e o risco projetados para uma hora")
+public record PontoPrevisaoDTO(
+    @Schema(description = "Hora projetada", example = "2024-03-20T14:00:00")
+    LocalDateTime hora,
+
+    @Schema(description = "Nível de chuva projetado para a janela de 24h que começa nesta hora", example = "38.2")
+    double nivelChuva,
+
+    @Schema(description = "Nível de risco projetado", example = "MODERADO")
+    NivelRisco nivelRisco
+) {}
@@ -0,0 +1,37 @@
+package br.com.fiap.Floodless.dto;
+
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "DTO com a projeção do nível de risco de uma região nas próximas horas")
+public record PrevisaoRiscoDTO(
+    @Schema(description = "ID da região", example = "1")
+    Long regiaoId,
+
+    @Schema(description = "Data e hora em que a projeção foi calculada", example = "2024-03-20T13:05:00")
+    LocalDateTime calculadoEm,
+
+    @Schema(description = "Nível de risco na primeira hora da projeção", example = "MODERADO")
+    NivelRisco nivelAtual,
+
+    @Schema(description = "Maior nível de risco projetado", example = "ALTO")
+    NivelRisco nivelMaximo,
+
+    @Schema(description = "Primeira hora em que o risco chega a ALTO ou mais (nulo se não chegar)", example = "2024-03-20T18:00:00")
+    LocalDateTime horaAlto,
+
+    @Schema(description = "Horas até o risco chegar a ALTO (nulo se não chegar)", example = "5")
+    Integer horasAteAlto,
+
+    @Schema(description = "Primeira hora em que o risco chega a CRITICO (nulo se não chegar)", example = "2024-03-20T21:00:00")
+    LocalDateTime horaCritico,
+
+    @Schema(description = "Horas até o risco chegar a CRITICO (nulo se não chegar)", example = "8")
+    Integer horasAteCritico,
+
+    @Schema(description = "Nível de risco projetado hora a hora")
+    List<PontoPrevisaoDTO> linhaDoTempo
+) {}
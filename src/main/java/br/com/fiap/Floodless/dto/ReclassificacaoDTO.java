@@ -0,0 +1,15 @@
+package br.com.fiap.Floodless.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "DTO com o resultado da reclassificação de risco das regiões")
+public record ReclassificacaoDTO(
+    @Schema(description = "Regiões avaliadas", example = "1200")
+    int regioesAvaliadas,
+
+    @Schema(description = "Regiões que mudaram de nível de risco", example = "37")
+    int regioesAlteradas,
+
+    @Schema(description = "Duração em milissegundos", example = "42")
+    long duracaoMs
+) {}
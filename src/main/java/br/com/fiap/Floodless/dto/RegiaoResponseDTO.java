@@ -2,6 +2,7 @@ package br.com.fiap.Floodless.dto;
 
 import br.com.fiap.Floodless.model.entities.Regiao;
 import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.model.enums.StatusEnriquecimento;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.time.LocalDateTime;
@@ -43,6 +44,9 @@ public record RegiaoResponseDTO(
     @Schema(description = "Data e hora da última atualização dos dados climáticos", example = "2024-03-20T10:30:00")
     LocalDateTime ultimaAtualizacao,
 
+    @Schema(description = "Situação da obtenção dos dados climáticos (PENDENTE e PROCESSANDO em requisições assíncronas)", example = "CONCLUIDO")
+    StatusEnriquecimento statusEnriquecimento,
+
     @Schema(description = "Lista de moradores cadastrados na região")
     List<UsuarioSimplificadoDTO> moradores,
 
@@ -62,6 +66,7 @@ public record RegiaoResponseDTO(
             regiao.getTemperatura(),
             regiao.getAreaRisco(),
             regiao.getUltimaAtualizacao(),
+            regiao.getStatusEnriquecimento(),
             regiao.getMoradores() != null 
                 ? regiao.getMoradores().stream()
                     .map(UsuarioSimplificadoDTO::new)
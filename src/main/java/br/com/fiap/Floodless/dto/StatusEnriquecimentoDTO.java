@@ -0,0 +1,36 @@
+package br.com.fiap.Floodless.dto;
+
+import br.com.fiap.Floodless.model.entities.Regiao;
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.model.enums.StatusEnriquecimento;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "DTO com a situação da obtenção dos dados climáticos de uma região")
+public record StatusEnriquecimentoDTO(
+    @Schema(description = "ID da região", example = "1")
+    Long regiaoId,
+
+    @Schema(description = "Situação atual do enriquecimento", example = "PROCESSANDO")
+    StatusEnriquecimento status,
+
+    @Schema(description = "Nível de risco atual da região", example = "BAIXO")
+    NivelRisco nivelRisco,
+
+    @Schema(description = "Data e hora da última atualização dos dados climáticos", example = "2024-03-20T10:30:00")
+    LocalDateTime ultimaAtualizacao
+) {
+    public StatusEnriquecimentoDTO(Regiao regiao) {
+        this(
+            regiao.getId(),
+            regiao.getStatusEnriquecimento(),
+            regiao.getNivelRisco(),
+            regiao.getUltimaAtualizacao()
+        );
+    }
+
+    public boolean finalizado() {
+        return status == StatusEnriquecimento.CONCLUIDO || status == StatusEnriquecimento.FALHOU;
+    }
+}
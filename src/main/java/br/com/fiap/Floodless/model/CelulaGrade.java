@@ -0,0 +1,27 @@
+package br.com.fiap.Floodless.model;
+
+import java.util.Locale;
+
+// Célula de uma grade regular de latitude/longitude. Regiões dentro da mesma célula
+// compartilham a mesma previsão, consultada no centro da célula.
+public record CelulaGrade(
+    long latIndice,
+    long lonIndice,
+    double tamanhoGraus
+) {
+    public static CelulaGrade de(double lat, double lon, double tamanhoGraus) {
+        return new CelulaGrade(
+            (long) Math.floor(lat / tamanhoGraus),
+            (long) Math.floor(lon / tamanhoGraus),
+            tamanhoGraus
+        );
+    }
+
+    public String latCentro() {
+        return String.format(Locale.ROOT, "%.4f", (latIndice + 0.5) * tamanhoGraus);
+    }
+
+    public String lonCentro() {
+        return String.format(Locale.ROOT, "%.4f", (lonIndice + 0.5) * tamanhoGraus);
+    }
+}
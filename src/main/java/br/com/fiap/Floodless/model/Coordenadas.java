@@ -8,7 +8,11 @@ public record Coordenadas(
     LocalDateTime ultimaAtualizacao
 ) {
     public boolean isValido() {
-        return ultimaAtualizacao.plusDays(7).isAfter(LocalDateTime.now());
+        return validoAte().isAfter(LocalDateTime.now());
+    }
+
+    public LocalDateTime validoAte() {
+        return ultimaAtualizacao.plusDays(7);
     }
 
     public static Coordenadas of(double lat, double lon) {
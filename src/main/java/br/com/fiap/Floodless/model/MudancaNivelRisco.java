@@ -0,0 +1,26 @@
+package br.com.fiap.Floodless.model;
+
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+
+import java.time.LocalDateTime;
+
+// Evento publicado quando uma atualização altera o nível de risco de uma região
+public record MudancaNivelRisco(
+    Long regiaoId,
+    NivelRisco nivelAnterior,
+    NivelRisco nivelAtual,
+    LocalDateTime dataMudanca
+) {
+    public boolean isAumento() {
+        return nivelAtual.ordinal() > nivelAnterior.ordinal();
+    }
+
+    // Entrada em CRITICO vinda de um nível menor dispara a ordem de evacuação
+    public boolean isEvacuacao() {
+        return nivelAtual == NivelRisco.CRITICO && nivelAnterior != NivelRisco.CRITICO;
+    }
+
+    public static boolean houveMudanca(NivelRisco anterior, NivelRisco atual) {
+        return anterior != null && atual != null && anterior != atual;
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.fiap.Floodless.model;
+
+// Campos da resposta do /v1/forecast usados no cálculo de risco. Valores ausentes na
+// resposta ficam como NaN; as séries horárias não devem ser alteradas (ficam em cache).
+// inicioSerie é o horário (epoch, segundos) da primeira hora das séries e horaAtual o horário dos
+// valores atuais (intervalos de 15 minutos do modelo), ambos -1 se ausentes.
+public record PrevisaoOpenMeteo(
+    double temperatura,
+    double precipitacao,
+    double chuva,
+    double pancadas,
+    int codigoTempo,
+    double[] probabilidadeHoraria,
+    double[] precipitacaoHoraria,
+    long inicioSerie,
+    long horaAtual
+) {
+    public boolean isCompleta() {
+        return !Double.isNaN(temperatura)
+            && !Double.isNaN(precipitacao)
+            && !Double.isNaN(chuva)
+            && !Double.isNaN(pancadas)
+            && codigoTempo >= 0
+            && probabilidadeHoraria != null
+            && precipitacaoHoraria != null;
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.fiap.Floodless.model.entities;
+
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.model.enums.TipoNotificacao;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Mudança de risco cuja notificação não pôde ser gravada (falha persistente ou encerramento da
+// instância). O AlertaRiscoService reprocessa as linhas periodicamente e as apaga na mesma
+// transação que grava a notificação.
+@Entity
+@Table(name = "TB_FLOODLESS_ALERTA_PENDENTE",
+       indexes = @Index(name = "IX_ALERTA_PENDENTE_REGISTRO", columnList = "tentativas, dt_registro"))
+@SequenceGenerator(name = "SQ_FLOODLESS_ALERTA_PENDENTE", sequenceName = "SQ_FLOODLESS_ALERTA_PENDENTE", allocationSize = 50)
+public class AlertaPendente {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SQ_FLOODLESS_ALERTA_PENDENTE")
+    @Column(name = "id_alerta_pendente")
+    private Long id;
+
+    @Column(nullable = false, name = "id_regiao")
+    private Long regiaoId;
+
+    @Column(nullable = false, name = "nivel_anterior", length = 20)
+    @Enumerated(EnumType.STRING)
+    private NivelRisco nivelAnterior;
+
+    @Column(nullable = false, name = "nivel_atual", length = 20)
+    @Enumerated(EnumType.STRING)
+    private NivelRisco nivelAtual;
+
+    @Column(nullable = false, name = "dt_mudanca")
+    private LocalDateTime dataMudanca;
+
+    // EVACUACAO ou MUDANCA_NIVEL_RISCO: cada notificação da mudança é reprocessada em separado
+    @Column(nullable = false, name = "tipo", length = 30)
+    @Enumerated(EnumType.STRING)
+    private TipoNotificacao tipo;
+
+    @Column(nullable = false, name = "tentativas")
+    private int tentativas;
+
+    @Column(name = "ultimo_erro", length = 500)
+    private String ultimoErro;
+
+    @Column(nullable = false, name = "dt_registro")
+    private LocalDateTime dataRegistro;
+
+    public AlertaPendente() {}
+
+    public AlertaPendente(Long regiaoId, NivelRisco nivelAnterior, NivelRisco nivelAtual, LocalDateTime dataMudanca, TipoNotificacao tipo, String ultimoErro) {
+        this.regiaoId = regiaoId;
+        this.nivelAnterior = nivelAnterior;
+        this.nivelAtual = nivelAtual;
+        this.dataMudanca = dataMudanca;
+        this.tipo = tipo;
+        this.tentativas = 1;
+        this.ultimoErro = ultimoErro;
+        this.dataRegistro = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRegiaoId() {
+        return regiaoId;
+    }
+
+    public void setRegiaoId(Long regiaoId) {
+        this.regiaoId = regiaoId;
+    }
+
+    public NivelRisco getNivelAnterior() {
+        return nivelAnterior;
+    }
+
+    public void setNivelAnterior(NivelRisco nivelAnterior) {
+        this.nivelAnterior = nivelAnterior;
+    }
+
+    public NivelRisco getNivelAtual() {
+        return nivelAtual;
+    }
+
+    public void setNivelAtual(NivelRisco nivelAtual) {
+        this.nivelAtual = nivelAtual;
+    }
+
+    public LocalDateTime getDataMudanca() {
+        return dataMudanca;
+    }
+
+    public void setDataMudanca(LocalDateTime dataMudanca) {
+        this.dataMudanca = dataMudanca;
+    }
+
+    public TipoNotificacao getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoNotificacao tipo) {
+        this.tipo = tipo;
+    }
+
+    public int getTentativas() {
+        return tentativas;
+    }
+
+    public void setTentativas(int tentativas) {
+        this.tentativas = tentativas;
+    }
+
+    public String getUltimoErro() {
+        return ultimoErro;
+    }
+
+    public void setUltimoErro(String ultimoErro) {
+        this.ultimoErro = ultimoErro;
+    }
+
+    public LocalDateTime getDataRegistro() {
+        return dataRegistro;
+    }
+
+    public void setDataRegistro(LocalDateTime dataRegistro) {
+        this.dataRegistro = dataRegistro;
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.fiap.Floodless.model.entities;
+
+import br.com.fiap.Floodless.model.Coordenadas;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "TB_FLOODLESS_GEOCODIFICACAO")
+public class Geocodificacao {
+    @Id
+    @Column(name = "ds_endereco", length = 200)
+    private String endereco;
+
+    @Column(nullable = false, name = "latitude")
+    private Double latitude;
+
+    @Column(nullable = false, name = "longitude")
+    private Double longitude;
+
+    @Column(nullable = false, name = "ultima_atualizacao")
+    private LocalDateTime ultimaAtualizacao;
+
+    public Geocodificacao() {}
+
+    public Geocodificacao(String endereco, Coordenadas coordenadas) {
+        this.endereco = endereco;
+        this.latitude = coordenadas.lat();
+        this.longitude = coordenadas.lon();
+        this.ultimaAtualizacao = coordenadas.ultimaAtualizacao();
+    }
+
+    public Coordenadas toCoordenadas() {
+        return new Coordenadas(latitude, longitude, ultimaAtualizacao);
+    }
+
+    public String getEndereco() {
+        return endereco;
+    }
+
+    public void setEndereco(String endereco) {
+        this.endereco = endereco;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public LocalDateTime getUltimaAtualizacao() {
+        return ultimaAtualizacao;
+    }
+
+    public void setUltimaAtualizacao(LocalDateTime ultimaAtualizacao) {
+        this.ultimaAtualizacao = ultimaAtualizacao;
+    }
+}
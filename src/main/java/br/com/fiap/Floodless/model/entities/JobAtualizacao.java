@@ -0,0 +1,73 @@
+package br.com.fiap.Floodless.model.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "TB_FLOODLESS_JOB_ATUALIZACAO",
+       indexes = @Index(name = "IX_JOB_ATUALIZACAO_PROXIMA", columnList = "proxima_execucao"))
+public class JobAtualizacao {
+    @Id
+    @Column(name = "id_regiao")
+    private Long regiaoId;
+
+    @Column(nullable = false, name = "proxima_execucao")
+    private LocalDateTime proximaExecucao;
+
+    @Column(name = "lease_ate")
+    private LocalDateTime leaseAte;
+
+    @Column(name = "lease_dono", length = 100)
+    private String leaseDono;
+
+    @Column(name = "ultima_execucao")
+    private LocalDateTime ultimaExecucao;
+
+    public JobAtualizacao() {}
+
+    public JobAtualizacao(Long regiaoId, LocalDateTime proximaExecucao) {
+        this.regiaoId = regiaoId;
+        this.proximaExecucao = proximaExecucao;
+    }
+
+    public Long getRegiaoId() {
+        return regiaoId;
+    }
+
+    public void setRegiaoId(Long regiaoId) {
+        this.regiaoId = regiaoId;
+    }
+
+    public LocalDateTime getProximaExecucao() {
+        return proximaExecucao;
+    }
+
+    public void setProximaExecucao(LocalDateTime proximaExecucao) {
+        this.proximaExecucao = proximaExecucao;
+    }
+
+    public LocalDateTime getLeaseAte() {
+        return leaseAte;
+    }
+
+    public void setLeaseAte(LocalDateTime leaseAte) {
+        this.leaseAte = leaseAte;
+    }
+
+    public String getLeaseDono() {
+        return leaseDono;
+    }
+
+    public void setLeaseDono(String leaseDono) {
+        this.leaseDono = leaseDono;
+    }
+
+    public LocalDateTime getUltimaExecucao() {
+        return ultimaExecucao;
+    }
+
+    public void setUltimaExecucao(LocalDateTime ultimaExecucao) {
+        this.ultimaExecucao = ultimaExecucao;
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.fiap.Floodless.model.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Estado de leitura das notificações da região inteira (sem usuário): cada linha guarda um bitmap de
+// 4096 usuários (faixa = id do usuário / 4096) para uma notificação. Um alerta para 50 mil moradores
+// ocupa no máximo 13 linhas, criadas somente quando alguém da faixa lê a notificação.
+@Entity
+@Table(name = "TB_FLOODLESS_LEITURA_NOTIFICACAO")
+@IdClass(LeituraNotificacao.Chave.class)
+public class LeituraNotificacao {
+    public static final int USUARIOS_POR_FAIXA = 4096;
+    public static final int BYTES_POR_FAIXA = USUARIOS_POR_FAIXA / Byte.SIZE;
+
+    @Id
+    @Column(name = "id_notificacao")
+    private Long notificacaoId;
+
+    @Id
+    @Column(name = "faixa_usuario")
+    private Long faixa;
+
+    @Column(nullable = false, name = "bits_leitura", length = BYTES_POR_FAIXA)
+    private byte[] bits;
+
+    public LeituraNotificacao() {}
+
+    public Long getNotificacaoId() {
+        return notificacaoId;
+    }
+
+    public void setNotificacaoId(Long notificacaoId) {
+        this.notificacaoId = notificacaoId;
+    }
+
+    public Long getFaixa() {
+        return faixa;
+    }
+
+    public void setFaixa(Long faixa) {
+        this.faixa = faixa;
+    }
+
+    public byte[] getBits() {
+        return bits;
+    }
+
+    public void setBits(byte[] bits) {
+        this.bits = bits;
+    }
+
+    public static long faixa(long usuarioId) {
+        return usuarioId / USUARIOS_POR_FAIXA;
+    }
+
+    // Posição do byte (a partir de 0) e máscara do bit do usuário dentro da faixa
+    public static int indiceByte(long usuarioId) {
+        return (int) (usuarioId % USUARIOS_POR_FAIXA) / Byte.SIZE;
+    }
+
+    public static int mascaraBit(long usuarioId) {
+        return 1 << (int) (usuarioId % Byte.SIZE);
+    }
+
+    public static boolean lida(byte[] bits, long usuarioId) {
+        int indice = indiceByte(usuarioId);
+        return bits != null && indice < bits.length && (bits[indice] & mascaraBit(usuarioId)) != 0;
+    }
+
+    public static class Chave implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Long notificacaoId;
+        private Long faixa;
+
+        public Chave() {}
+
+        public Chave(Long notificacaoId, Long faixa) {
+            this.notificacaoId = notificacaoId;
+            this.faixa = faixa;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave chave)) return false;
+            return Objects.equals(notificacaoId, chave.notificacaoId) && Objects.equals(faixa, chave.faixa);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(notificacaoId, faixa);
+        }
+    }
+}
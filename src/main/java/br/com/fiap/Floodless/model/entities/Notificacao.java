@@ -6,10 +6,20 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "TB_FLOODLESS_NOTIFICACAO")
+@Table(name = "TB_FLOODLESS_NOTIFICACAO",
+       indexes = {
+           @Index(name = "IX_NOTIFICACAO_FEED", columnList = "urgente, data_criacao, id_notificacao"),
+           @Index(name = "IX_NOTIFICACAO_LIDA_FEED", columnList = "lida, urgente, data_criacao, id_notificacao"),
+           @Index(name = "IX_NOTIFICACAO_REGIAO_FEED", columnList = "id_regiao, urgente, data_criacao, id_notificacao"),
+           @Index(name = "IX_NOTIFICACAO_USUARIO_FEED", columnList = "id_usuario, urgente, data_criacao, id_notificacao"),
+           @Index(name = "IX_NOTIFICACAO_CAIXA_USUARIO", columnList = "id_usuario, data_criacao, id_notificacao"),
+           @Index(name = "IX_NOTIFICACAO_CAIXA_REGIAO", columnList = "id_regiao, id_usuario, data_criacao, id_notificacao"),
+           @Index(name = "IX_NOTIFICACAO_RETENCAO", columnList = "tipo_notificacao, data_criacao")
+       })
+@SequenceGenerator(name = "SQ_FLOODLESS_NOTIFICACAO", sequenceName = "SQ_FLOODLESS_NOTIFICACAO", allocationSize = 50)
 public class Notificacao {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SQ_FLOODLESS_NOTIFICACAO")
     @Column(name = "id_notificacao")
     private Long id;
 
@@ -162,7 +172,9 @@ public class Notificacao {
     protected void aoCriar() {
         dataCriacao = LocalDateTime.now();
         lida = false;
-        urgente = false;
+        if (urgente == null) {
+            urgente = false;
+        }
     }
 }
 
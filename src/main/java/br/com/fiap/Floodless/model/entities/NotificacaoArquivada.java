@@ -0,0 +1,87 @@
+package br.com.fiap.Floodless.model.entities;
+
+import br.com.fiap.Floodless.model.enums.TipoNotificacao;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Notificações removidas da tabela principal pela política de retenção. As linhas são copiadas em
+// lote via JDBC (NotificacaoArquivadaRepositoryImpl) com o mesmo ID, sem chaves estrangeiras nem
+// índices secundários, para que a cópia seja barata e não dependa de regiões ou usuários existentes.
+@Entity
+@Table(name = "TB_FLOODLESS_NOTIFICACAO_ARQUIVO")
+public class NotificacaoArquivada {
+    @Id
+    @Column(name = "id_notificacao")
+    private Long id;
+
+    @Column(nullable = false, name = "titulo_notificacao")
+    private String titulo;
+
+    @Column(nullable = false, name = "ms_noticacao")
+    private String mensagem;
+
+    @Column(name = "tipo_notificacao")
+    @Enumerated(EnumType.STRING)
+    private TipoNotificacao tipo;
+
+    @Column(name = "data_criacao")
+    private LocalDateTime dataCriacao;
+
+    @Column(name = "lida")
+    private Boolean lida;
+
+    @Column(name = "urgente")
+    private Boolean urgente;
+
+    @Column(name = "id_usuario")
+    private Long usuarioId;
+
+    @Column(name = "id_regiao")
+    private Long regiaoId;
+
+    @Column(nullable = false, name = "data_arquivamento")
+    private LocalDateTime dataArquivamento;
+
+    public NotificacaoArquivada() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public TipoNotificacao getTipo() {
+        return tipo;
+    }
+
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+
+    public Boolean getLida() {
+        return lida;
+    }
+
+    public Boolean getUrgente() {
+        return urgente;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public Long getRegiaoId() {
+        return regiaoId;
+    }
+
+    public LocalDateTime getDataArquivamento() {
+        return dataArquivamento;
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.fiap.Floodless.model.entities;
+
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Histórico append-only: uma linha por região e horário da previsão do Open-Meteo. As linhas são
+// gravadas em lote via JDBC (ObservacaoClimaticaRepositoryImpl), nunca alteradas; a chave única
+// (id_regiao, dt_observacao) descarta a mesma previsão vinda do cache ou de outra instância.
+@Entity
+@Table(name = "TB_FLOODLESS_OBSERVACAO",
+       uniqueConstraints = @UniqueConstraint(name = "UK_OBSERVACAO_REGIAO_DATA", columnNames = {"id_regiao", "dt_observacao"}),
+       indexes = @Index(name = "IX_OBSERVACAO_DATA", columnList = "dt_observacao"))
+@SequenceGenerator(name = "SQ_FLOODLESS_OBSERVACAO", sequenceName = "SQ_FLOODLESS_OBSERVACAO", allocationSize = 50)
+public class ObservacaoClimatica {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SQ_FLOODLESS_OBSERVACAO")
+    @Column(name = "id_observacao")
+    private Long id;
+
+    @Column(nullable = false, name = "id_regiao")
+    private Long regiaoId;
+
+    @Column(nullable = false, name = "dt_observacao")
+    private LocalDateTime dataObservacao;
+
+    @Column(name = "temperatura")
+    private Double temperatura;
+
+    @Column(name = "precipitacao")
+    private Double precipitacao;
+
+    @Column(name = "chuva")
+    private Double chuva;
+
+    @Column(name = "pancadas")
+    private Double pancadas;
+
+    @Column(name = "codigo_tempo")
+    private Integer codigoTempo;
+
+    @Column(name = "nivel_chuva")
+    private Double nivelChuva;
+
+    @Column(name = "nivel_risco", length = 20)
+    @Enumerated(EnumType.STRING)
+    private NivelRisco nivelRisco;
+
+    // Previsão horária codificada por SerieHoraria
+    @Column(name = "serie_horaria", length = 2000)
+    private byte[] serieHoraria;
+
+    public ObservacaoClimatica() {}
+
+    public ObservacaoClimatica(Long regiaoId, LocalDateTime dataObservacao, Double temperatura, Double precipitacao, Double chuva, Double pancadas, Integer codigoTempo, Double nivelChuva, NivelRisco nivelRisco, byte[] serieHoraria) {
+        this.regiaoId = regiaoId;
+        this.dataObservacao = dataObservacao;
+        this.temperatura = temperatura;
+        this.precipitacao = precipitacao;
+        this.chuva = chuva;
+        this.pancadas = pancadas;
+        this.codigoTempo = codigoTempo;
+        this.nivelChuva = nivelChuva;
+        this.nivelRisco = nivelRisco;
+        this.serieHoraria = serieHoraria;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRegiaoId() {
+        return regiaoId;
+    }
+
+    public void setRegiaoId(Long regiaoId) {
+        this.regiaoId = regiaoId;
+    }
+
+    public LocalDateTime getDataObservacao() {
+        return dataObservacao;
+    }
+
+    public void setDataObservacao(LocalDateTime dataObservacao) {
+        this.dataObservacao = dataObservacao;
+    }
+
+    public Double getTemperatura() {
+        return temperatura;
+    }
+
+    public void setTemperatura(Double temperatura) {
+        this.temperatura = temperatura;
+    }
+
+    public Double getPrecipitacao() {
+        return precipitacao;
+    }
+
+    public void setPrecipitacao(Double precipitacao) {
+        this.precipitacao = precipitacao;
+    }
+
+    public Double getChuva() {
+        return chuva;
+    }
+
+    public void setChuva(Double chuva) {
+        this.chuva = chuva;
+    }
+
+    public Double getPancadas() {
+        return pancadas;
+    }
+
+    public void setPancadas(Double pancadas) {
+        this.pancadas = pancadas;
+    }
+
+    public Integer getCodigoTempo() {
+        return codigoTempo;
+    }
+
+    public void setCodigoTempo(Integer codigoTempo) {
+        this.codigoTempo = codigoTempo;
+    }
+
+    public Double getNivelChuva() {
+        return nivelChuva;
+    }
+
+    public void setNivelChuva(Double nivelChuva) {
+        this.nivelChuva = nivelChuva;
+    }
+
+    public NivelRisco getNivelRisco() {
+        return nivelRisco;
+    }
+
+    public void setNivelRisco(NivelRisco nivelRisco) {
+        this.nivelRisco = nivelRisco;
+    }
+
+    public byte[] getSerieHoraria() {
+        return serieHoraria;
+    }
+
+    public void setSerieHoraria(byte[] serieHoraria) {
+        this.serieHoraria = serieHoraria;
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.fiap.Floodless.model.entities;
+
+import jakarta.persistence.*;
+
+// Limiares de nível de chuva de uma região ou de uma cidade inteira. O perfil da região tem
+// precedência sobre o da cidade; sem perfil valem os limiares padrão (floodless.limiares.padrao.*).
+@Entity
+@Table(name = "TB_FLOODLESS_PERFIL_LIMIAR")
+public class PerfilLimiar {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_perfil")
+    private Long id;
+
+    @Column(length = 100, name = "ds_perfil")
+    private String descricao;
+
+    @Column(name = "id_regiao", unique = true)
+    private Long regiaoId;
+
+    @Column(length = 50, name = "cidade_perfil")
+    private String cidade;
+
+    @Column(length = 50, name = "estado_perfil")
+    private String estado;
+
+    @Column(nullable = false, name = "limiar_moderado")
+    private Double limiarModerado;
+
+    @Column(nullable = false, name = "limiar_alto")
+    private Double limiarAlto;
+
+    @Column(nullable = false, name = "limiar_critico")
+    private Double limiarCritico;
+
+    public PerfilLimiar() {}
+
+    public PerfilLimiar(Long id, String descricao, Long regiaoId, String cidade, String estado, Double limiarModerado, Double limiarAlto, Double limiarCritico) {
+        this.id = id;
+        this.descricao = descricao;
+        this.regiaoId = regiaoId;
+        this.cidade = cidade;
+        this.estado = estado;
+        this.limiarModerado = limiarModerado;
+        this.limiarAlto = limiarAlto;
+        this.limiarCritico = limiarCritico;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public Long getRegiaoId() {
+        return regiaoId;
+    }
+
+    public void setRegiaoId(Long regiaoId) {
+        this.regiaoId = regiaoId;
+    }
+
+    public String getCidade() {
+        return cidade;
+    }
+
+    public void setCidade(String cidade) {
+        this.cidade = cidade;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public Double getLimiarModerado() {
+        return limiarModerado;
+    }
+
+    public void setLimiarModerado(Double limiarModerado) {
+        this.limiarModerado = limiarModerado;
+    }
+
+    public Double getLimiarAlto() {
+        return limiarAlto;
+    }
+
+    public void setLimiarAlto(Double limiarAlto) {
+        this.limiarAlto = limiarAlto;
+    }
+
+    public Double getLimiarCritico() {
+        return limiarCritico;
+    }
+
+    public void setLimiarCritico(Double limiarCritico) {
+        this.limiarCritico = limiarCritico;
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.fiap.Floodless.model.entities;
 
 import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.model.enums.StatusEnriquecimento;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
@@ -45,6 +46,20 @@ public class Regiao {
     @Column(name = "ultima_atualizacao")
     private LocalDateTime ultimaAtualizacao = LocalDateTime.now();
 
+    // Quantidade de notificações da região inteira (sem usuário), mantida por UPDATEs pontuais
+    // (RegiaoRepository); nulo indica que precisa ser recalculada. Nunca é gravada pelo save da entidade.
+    @Column(name = "qt_notificacoes_regiao", insertable = false, updatable = false)
+    private Long notificacoesRegiao;
+
+    @Column(name = "status_enriquecimento", length = 20)
+    @Enumerated(EnumType.STRING)
+    private StatusEnriquecimento statusEnriquecimento = StatusEnriquecimento.CONCLUIDO;
+
+    // Até quando a instância que reservou o enriquecimento (status PROCESSANDO) responde por ele;
+    // gravado somente pelo RegiaoRepository.reservarEnriquecimento
+    @Column(name = "lease_enriquecimento", insertable = false, updatable = false)
+    private LocalDateTime leaseEnriquecimento;
+
     @OneToMany(mappedBy = "regiao")
     private List<Usuario> moradores;
 
@@ -186,6 +201,18 @@ public class Regiao {
         this.ultimaAtualizacao = ultimaAtualizacao;
     }
 
+    public StatusEnriquecimento getStatusEnriquecimento() {
+        return statusEnriquecimento;
+    }
+
+    public void setStatusEnriquecimento(StatusEnriquecimento statusEnriquecimento) {
+        this.statusEnriquecimento = statusEnriquecimento;
+    }
+
+    public LocalDateTime getLeaseEnriquecimento() {
+        return leaseEnriquecimento;
+    }
+
     public List<Usuario> getMoradores() {
         return moradores;
     }
@@ -201,4 +228,8 @@ public class Regiao {
     public void setAbrigos(List<Abrigo> abrigos) {
         this.abrigos = abrigos;
     }
-}
\ No newline at end of file
+
+    public Long getNotificacoesRegiao() {
+        return notificacoesRegiao;
+    }
+}
@@ -42,6 +42,14 @@ public class Usuario {
     @JoinColumn(name = "id_regiao")
     private Regiao regiao;
 
+    // Contadores da caixa de entrada, mantidos por UPDATEs pontuais (UsuarioRepository); nulo indica
+    // que precisam ser recalculados. Nunca são gravados pelo save da entidade.
+    @Column(name = "qt_nao_lidas_pessoais", insertable = false, updatable = false)
+    private Long naoLidasPessoais;
+
+    @Column(name = "qt_lidas_regiao", insertable = false, updatable = false)
+    private Long lidasRegiao;
+
     @OneToMany(mappedBy = "usuario")
     private List<Notificacao> notificacoes;
 
@@ -183,4 +191,12 @@ public class Usuario {
     public void setNotificacoes(List<Notificacao> notificacoes) {
         this.notificacoes = notificacoes;
     }
-}
\ No newline at end of file
+
+    public Long getNaoLidasPessoais() {
+        return naoLidasPessoais;
+    }
+
+    public Long getLidasRegiao() {
+        return lidasRegiao;
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.fiap.Floodless.model.enums;
+
+public enum StatusEnriquecimento {
+    PENDENTE,
+    PROCESSANDO,
+    CONCLUIDO,
+    FALHOU
+}
@@ -0,0 +1,24 @@
+package br.com.fiap.Floodless.monitoramento;
+
+import br.com.fiap.Floodless.service.ClimaService;
+import br.com.fiap.Floodless.util.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// GET /actuator/circuitbreakers - estado e contagem de transições de cada provedor
+@Component
+@Endpoint(id = "circuitbreakers")
+public class CircuitBreakersEndpoint {
+
+    @Autowired
+    private ClimaService climaService;
+
+    @ReadOperation
+    public List<CircuitBreaker.Situacao> circuitBreakers() {
+        return climaService.getSituacaoCircuitBreakers();
+    }
+}
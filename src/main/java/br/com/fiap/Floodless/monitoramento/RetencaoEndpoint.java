@@ -0,0 +1,31 @@
+package br.com.fiap.Floodless.monitoramento;
+
+import br.com.fiap.Floodless.service.RetencaoNotificacaoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// GET /actuator/retencao - andamento do arquivamento de notificações expiradas
+// POST /actuator/retencao - inicia uma execução fora do horário agendado
+@Component
+@Endpoint(id = "retencao")
+public class RetencaoEndpoint {
+
+    @Autowired
+    private RetencaoNotificacaoService retencaoNotificacaoService;
+
+    @ReadOperation
+    public RetencaoNotificacaoService.ProgressoRetencao retencao() {
+        return retencaoNotificacaoService.progresso();
+    }
+
+    @WriteOperation
+    public Map<String, Object> iniciar() {
+        boolean iniciada = retencaoNotificacaoService.iniciar();
+        return Map.of("iniciada", iniciada, "progresso", retencaoNotificacaoService.progresso());
+    }
+}
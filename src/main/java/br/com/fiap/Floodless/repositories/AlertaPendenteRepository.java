@@ -0,0 +1,20 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.entities.AlertaPendente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+@Repository
+public interface AlertaPendenteRepository extends JpaRepository<AlertaPendente, Long>, AlertaPendenteRepositoryCustom {
+
+    @Modifying
+    @Transactional
+    @Query("update AlertaPendente a set a.tentativas = a.tentativas + 1, a.ultimoErro = :erro where a.id in :ids")
+    int registrarFalha(@Param("ids") Collection<Long> ids, @Param("erro") String erro);
+}
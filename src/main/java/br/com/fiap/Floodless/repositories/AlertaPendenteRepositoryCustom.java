@@ -0,0 +1,11 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.entities.AlertaPendente;
+
+import java.util.List;
+
+public interface AlertaPendenteRepositoryCustom {
+
+    // Trava até "limite" alertas pendentes na transação atual, pulando os que outro nó já travou
+    List<AlertaPendente> reservar(int limite);
+}
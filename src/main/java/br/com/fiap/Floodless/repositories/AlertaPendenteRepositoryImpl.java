@@ -0,0 +1,50 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.entities.AlertaPendente;
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.model.enums.TipoNotificacao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+public class AlertaPendenteRepositoryImpl implements AlertaPendenteRepositoryCustom {
+
+    // As travas valem até o fim da transação do chamador, que grava as notificações e apaga as
+    // linhas; se ela falhar, as linhas voltam a ficar disponíveis. As que mais falharam vão para o
+    // fim da fila, para não travar as demais.
+    private static final String SQL_RESERVAR =
+            "SELECT id_alerta_pendente, id_regiao, nivel_anterior, nivel_atual, dt_mudanca, tipo, tentativas, ultimo_erro, dt_registro " +
+            "FROM TB_FLOODLESS_ALERTA_PENDENTE " +
+            "ORDER BY tentativas, dt_registro " +
+            "FOR UPDATE SKIP LOCKED";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<AlertaPendente> reservar(int limite) {
+        return jdbcTemplate.query(conexao -> {
+            PreparedStatement ps = conexao.prepareStatement(SQL_RESERVAR);
+            ps.setMaxRows(limite);
+            ps.setFetchSize(limite);
+            return ps;
+        }, (rs, linha) -> {
+            AlertaPendente alerta = new AlertaPendente();
+            alerta.setId(rs.getLong("id_alerta_pendente"));
+            alerta.setRegiaoId(rs.getLong("id_regiao"));
+            alerta.setNivelAnterior(NivelRisco.valueOf(rs.getString("nivel_anterior")));
+            alerta.setNivelAtual(NivelRisco.valueOf(rs.getString("nivel_atual")));
+            alerta.setDataMudanca(rs.getTimestamp("dt_mudanca").toLocalDateTime());
+            alerta.setTipo(TipoNotificacao.valueOf(rs.getString("tipo")));
+            alerta.setTentativas(rs.getInt("tentativas"));
+            alerta.setUltimoErro(rs.getString("ultimo_erro"));
+            alerta.setDataRegistro(rs.getTimestamp("dt_registro").toLocalDateTime());
+            return alerta;
+        });
+    }
+}
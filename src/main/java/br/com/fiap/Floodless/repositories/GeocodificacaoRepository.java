@@ -0,0 +1,14 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.entities.Geocodificacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GeocodificacaoRepository extends JpaRepository<Geocodificacao, String> {
+
+    List<Geocodificacao> findByUltimaAtualizacaoAfter(LocalDateTime limite);
+}
@@ -0,0 +1,23 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.entities.JobAtualizacao;
+import br.com.fiap.Floodless.model.entities.Regiao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface JobAtualizacaoRepository extends JpaRepository<JobAtualizacao, Long>, JobAtualizacaoRepositoryCustom {
+
+    @Query("select r from Regiao r where not exists (select 1 from JobAtualizacao j where j.regiaoId = r.id)")
+    List<Regiao> findRegioesSemJob();
+
+    @Modifying
+    @Transactional
+    @Query("delete from JobAtualizacao j where not exists (select 1 from Regiao r where r.id = j.regiaoId)")
+    int deleteJobsSemRegiao();
+}
@@ -0,0 +1,15 @@
+package br.com.fiap.Floodless.repositories;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface JobAtualizacaoRepositoryCustom {
+
+    // Reserva até "limite" jobs vencidos para o nó informado, pulando os que outro nó já travou
+    List<Long> reservarVencidos(int limite, String dono, Duration lease);
+
+    // Libera os jobs do nó com o próximo horário de execução de cada região
+    void concluir(Map<Long, LocalDateTime> proximasExecucoes, String dono);
+}
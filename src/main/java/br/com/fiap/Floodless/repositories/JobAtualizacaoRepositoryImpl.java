@@ -0,0 +1,73 @@
+package br.com.fiap.Floodless.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class JobAtualizacaoRepositoryImpl implements JobAtualizacaoRepositoryCustom {
+
+    // FOR UPDATE SKIP LOCKED: nós concorrentes recebem conjuntos disjuntos de jobs. O lease gravado
+    // em seguida mantém a reserva depois do commit; se o nó cair, o job volta a ficar disponível
+    // quando o lease vencer.
+    private static final String SQL_SELECIONAR_VENCIDOS =
+            "SELECT id_regiao FROM TB_FLOODLESS_JOB_ATUALIZACAO " +
+            "WHERE proxima_execucao <= ? AND (lease_ate IS NULL OR lease_ate < ?) " +
+            "ORDER BY proxima_execucao " +
+            "FOR UPDATE SKIP LOCKED";
+
+    private static final String SQL_RESERVAR =
+            "UPDATE TB_FLOODLESS_JOB_ATUALIZACAO SET lease_ate = ?, lease_dono = ? WHERE id_regiao = ?";
+
+    private static final String SQL_CONCLUIR =
+            "UPDATE TB_FLOODLESS_JOB_ATUALIZACAO " +
+            "SET proxima_execucao = ?, ultima_execucao = ?, lease_ate = NULL, lease_dono = NULL " +
+            "WHERE id_regiao = ? AND lease_dono = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public List<Long> reservarVencidos(int limite, String dono, Duration lease) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> ids = jdbcTemplate.query(conexao -> {
+            PreparedStatement ps = conexao.prepareStatement(SQL_SELECIONAR_VENCIDOS);
+            ps.setTimestamp(1, agora);
+            ps.setTimestamp(2, agora);
+            ps.setMaxRows(limite);
+            ps.setFetchSize(limite);
+            return ps;
+        }, (rs, linha) -> rs.getLong(1));
+
+        if (!ids.isEmpty()) {
+            Timestamp leaseAte = Timestamp.valueOf(LocalDateTime.now().plus(lease));
+            jdbcTemplate.batchUpdate(SQL_RESERVAR, ids, ids.size(), (ps, id) -> {
+                ps.setTimestamp(1, leaseAte);
+                ps.setString(2, dono);
+                ps.setLong(3, id);
+            });
+        }
+        return ids;
+    }
+
+    @Override
+    @Transactional
+    public void concluir(Map<Long, LocalDateTime> proximasExecucoes, String dono) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        List<Map.Entry<Long, LocalDateTime>> entradas = new ArrayList<>(proximasExecucoes.entrySet());
+        jdbcTemplate.batchUpdate(SQL_CONCLUIR, entradas, entradas.size(), (ps, entrada) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(entrada.getValue()));
+            ps.setTimestamp(2, agora);
+            ps.setLong(3, entrada.getKey());
+            ps.setString(4, dono);
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.entities.LeituraNotificacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface LeituraNotificacaoRepository extends JpaRepository<LeituraNotificacao, LeituraNotificacao.Chave>, LeituraNotificacaoRepositoryCustom {
+
+    @Modifying
+    @Transactional
+    @Query("delete from LeituraNotificacao l where l.notificacaoId = :notificacaoId")
+    int deleteByNotificacaoId(@Param("notificacaoId") Long notificacaoId);
+}
@@ -0,0 +1,27 @@
+package br.com.fiap.Floodless.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface LeituraNotificacaoRepositoryCustom {
+
+    // Liga o bit do usuário (cria a linha da faixa se ainda não existir); devolve false se já estava lida
+    boolean marcarLida(long notificacaoId, long usuarioId);
+
+    // Liga o bit do usuário em todas as notificações da região inteira com uma única instrução
+    int marcarTodasDaRegiao(long regiaoId, long usuarioId);
+
+    // Usuários com o bit ligado na notificação
+    List<Long> usuariosQueLeram(long notificacaoId);
+
+    // Desconta dos contadores qt_lidas_regiao dos leitores as notificações da região informadas,
+    // que estão saindo da tabela principal
+    void descontarLeituras(Collection<Long> notificacaoIds);
+
+    // Entre as notificações informadas, as que o usuário já leu
+    Set<Long> filtrarLidas(Collection<Long> notificacaoIds, long usuarioId);
+
+    // Notificações da região inteira (sem usuário) já lidas pelo usuário
+    long contarLidasDaRegiao(long regiaoId, long usuarioId);
+}
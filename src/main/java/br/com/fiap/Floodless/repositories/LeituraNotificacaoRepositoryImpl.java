@@ -0,0 +1,168 @@
+package br.com.fiap.Floodless.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static br.com.fiap.Floodless.model.entities.LeituraNotificacao.BYTES_POR_FAIXA;
+import static br.com.fiap.Floodless.model.entities.LeituraNotificacao.USUARIOS_POR_FAIXA;
+import static br.com.fiap.Floodless.model.entities.LeituraNotificacao.faixa;
+import static br.com.fiap.Floodless.model.entities.LeituraNotificacao.indiceByte;
+import static br.com.fiap.Floodless.model.entities.LeituraNotificacao.lida;
+import static br.com.fiap.Floodless.model.entities.LeituraNotificacao.mascaraBit;
+
+public class LeituraNotificacaoRepositoryImpl implements LeituraNotificacaoRepositoryCustom {
+
+    // UTL_RAW.BIT_OR faz o OR no próprio banco e o teste do bit fica no WHERE: com o bloqueio da linha,
+    // de duas leituras simultâneas do mesmo usuário só uma altera a linha
+    private static final String SQL_LIGAR_BIT =
+            "UPDATE TB_FLOODLESS_LEITURA_NOTIFICACAO SET bits_leitura = UTL_RAW.BIT_OR(bits_leitura, ?) " +
+            "WHERE id_notificacao = ? AND faixa_usuario = ? " +
+            "AND BITAND(TO_NUMBER(RAWTOHEX(UTL_RAW.SUBSTR(bits_leitura, ?, 1)), 'XX'), ?) = 0";
+
+    private static final String SQL_CRIAR_FAIXA =
+            "INSERT INTO TB_FLOODLESS_LEITURA_NOTIFICACAO (id_notificacao, faixa_usuario, bits_leitura) VALUES (?, ?, ?)";
+
+    private static final String SQL_MARCAR_TODAS_REGIAO =
+            "MERGE INTO TB_FLOODLESS_LEITURA_NOTIFICACAO l " +
+            "USING (SELECT n.id_notificacao, ? AS faixa_usuario, ? AS mascara FROM TB_FLOODLESS_NOTIFICACAO n " +
+            "WHERE n.id_regiao = ? AND n.id_usuario IS NULL) m " +
+            "ON (l.id_notificacao = m.id_notificacao AND l.faixa_usuario = m.faixa_usuario) " +
+            "WHEN MATCHED THEN UPDATE SET l.bits_leitura = UTL_RAW.BIT_OR(l.bits_leitura, m.mascara) " +
+            "WHEN NOT MATCHED THEN INSERT (id_notificacao, faixa_usuario, bits_leitura) " +
+            "VALUES (m.id_notificacao, m.faixa_usuario, m.mascara)";
+
+    private static final String SQL_FAIXAS =
+            "SELECT faixa_usuario, bits_leitura FROM TB_FLOODLESS_LEITURA_NOTIFICACAO WHERE id_notificacao = ?";
+
+    private static final String SQL_LEITURAS_REGIAO =
+            "SELECT n.id_regiao, l.faixa_usuario, l.bits_leitura FROM TB_FLOODLESS_LEITURA_NOTIFICACAO l " +
+            "JOIN TB_FLOODLESS_NOTIFICACAO n ON n.id_notificacao = l.id_notificacao " +
+            "WHERE n.id_usuario IS NULL AND l.id_notificacao IN (%s)";
+
+    private static final String SQL_DESCONTAR_LIDAS =
+            "UPDATE TB_FLOODLESS_USUARIO SET qt_lidas_regiao = GREATEST(qt_lidas_regiao - ?, 0) " +
+            "WHERE id_usuario = ? AND id_regiao = ?";
+
+    private static final String SQL_LIDAS =
+            "SELECT id_notificacao, bits_leitura FROM TB_FLOODLESS_LEITURA_NOTIFICACAO " +
+            "WHERE faixa_usuario = ? AND id_notificacao IN (%s)";
+
+    // Testa o bit do usuário no banco: só o contador volta para a aplicação
+    private static final String SQL_CONTAR_LIDAS_REGIAO =
+            "SELECT COUNT(*) FROM TB_FLOODLESS_NOTIFICACAO n " +
+            "JOIN TB_FLOODLESS_LEITURA_NOTIFICACAO l ON l.id_notificacao = n.id_notificacao " +
+            "WHERE n.id_regiao = ? AND n.id_usuario IS NULL AND l.faixa_usuario = ? " +
+            "AND BITAND(TO_NUMBER(RAWTOHEX(UTL_RAW.SUBSTR(l.bits_leitura, ?, 1)), 'XX'), ?) > 0";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean marcarLida(long notificacaoId, long usuarioId) {
+        byte[] mascara = mascara(usuarioId);
+        if (ligarBit(notificacaoId, usuarioId, mascara)) {
+            return true;
+        }
+        try {
+            jdbcTemplate.update(SQL_CRIAR_FAIXA, notificacaoId, faixa(usuarioId), mascara);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // A linha da faixa já existia (bit já ligado) ou foi criada agora por outra leitura
+            return ligarBit(notificacaoId, usuarioId, mascara);
+        }
+    }
+
+    @Override
+    public int marcarTodasDaRegiao(long regiaoId, long usuarioId) {
+        return jdbcTemplate.update(SQL_MARCAR_TODAS_REGIAO, faixa(usuarioId), mascara(usuarioId), regiaoId);
+    }
+
+    @Override
+    public List<Long> usuariosQueLeram(long notificacaoId) {
+        List<Long> usuarios = new ArrayList<>();
+        jdbcTemplate.query(SQL_FAIXAS, rs -> {
+            long inicio = rs.getLong("faixa_usuario") * USUARIOS_POR_FAIXA;
+            BitSet bits = BitSet.valueOf(rs.getBytes("bits_leitura"));
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                usuarios.add(inicio + i);
+            }
+        }, notificacaoId);
+        return usuarios;
+    }
+
+    @Override
+    public void descontarLeituras(Collection<Long> notificacaoIds) {
+        if (notificacaoIds.isEmpty()) {
+            return;
+        }
+        // (região, usuário) -> quantidade de notificações lidas entre as informadas
+        Map<List<Long>, Long> leituras = new HashMap<>();
+        String sql = String.format(SQL_LEITURAS_REGIAO, String.join(",", Collections.nCopies(notificacaoIds.size(), "?")));
+        jdbcTemplate.query(sql, rs -> {
+            long regiaoId = rs.getLong("id_regiao");
+            long inicio = rs.getLong("faixa_usuario") * USUARIOS_POR_FAIXA;
+            BitSet bits = BitSet.valueOf(rs.getBytes("bits_leitura"));
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                leituras.merge(List.of(regiaoId, inicio + i), 1L, Long::sum);
+            }
+        }, notificacaoIds.toArray());
+
+        List<Map.Entry<List<Long>, Long>> entradas = new ArrayList<>(leituras.entrySet());
+        jdbcTemplate.batchUpdate(SQL_DESCONTAR_LIDAS, entradas, 1000, (ps, entrada) -> {
+            ps.setLong(1, entrada.getValue());
+            ps.setLong(2, entrada.getKey().get(1));
+            ps.setLong(3, entrada.getKey().get(0));
+        });
+    }
+
+    private boolean ligarBit(long notificacaoId, long usuarioId, byte[] mascara) {
+        return jdbcTemplate.update(SQL_LIGAR_BIT, mascara, notificacaoId, faixa(usuarioId),
+                indiceByte(usuarioId) + 1, mascaraBit(usuarioId)) > 0;
+    }
+
+    private byte[] mascara(long usuarioId) {
+        byte[] mascara = new byte[BYTES_POR_FAIXA];
+        mascara[indiceByte(usuarioId)] = (byte) mascaraBit(usuarioId);
+        return mascara;
+    }
+
+    @Override
+    public Set<Long> filtrarLidas(Collection<Long> notificacaoIds, long usuarioId) {
+        if (notificacaoIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        String sql = String.format(SQL_LIDAS, String.join(",", Collections.nCopies(notificacaoIds.size(), "?")));
+        Object[] parametros = new Object[notificacaoIds.size() + 1];
+        parametros[0] = faixa(usuarioId);
+        int i = 1;
+        for (Long id : notificacaoIds) {
+            parametros[i++] = id;
+        }
+
+        Set<Long> lidas = new HashSet<>();
+        jdbcTemplate.query(sql, rs -> {
+            if (lida(rs.getBytes("bits_leitura"), usuarioId)) {
+                lidas.add(rs.getLong("id_notificacao"));
+            }
+        }, parametros);
+        return lidas;
+    }
+
+    @Override
+    public long contarLidasDaRegiao(long regiaoId, long usuarioId) {
+        Long lidas = jdbcTemplate.queryForObject(SQL_CONTAR_LIDAS_REGIAO, Long.class,
+                regiaoId, faixa(usuarioId), indiceByte(usuarioId) + 1, mascaraBit(usuarioId));
+        return lidas != null ? lidas : 0;
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.entities.NotificacaoArquivada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificacaoArquivadaRepository extends JpaRepository<NotificacaoArquivada, Long>, NotificacaoArquivadaRepositoryCustom {
+}
@@ -0,0 +1,21 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.enums.TipoNotificacao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NotificacaoArquivadaRepositoryCustom {
+
+    // Até "quantidade" notificações do tipo criadas antes de "limite", sem travar; as pessoais não
+    // lidas só entram se também forem anteriores a "limiteNaoLidas"
+    List<NotificacaoExpirada> buscarExpiradas(TipoNotificacao tipo, LocalDateTime limite, LocalDateTime limiteNaoLidas, int quantidade);
+
+    // Bloqueia (FOR UPDATE SKIP LOCKED) as candidatas que ainda atendem ao mesmo filtro
+    List<NotificacaoExpirada> reservar(List<Long> ids, TipoNotificacao tipo, LocalDateTime limite, LocalDateTime limiteNaoLidas);
+
+    // Copia as notificações para o arquivo e as remove da tabela principal (com o bitmap de leitura)
+    int arquivar(List<Long> ids);
+
+    record NotificacaoExpirada(long id, Long usuarioId, long regiaoId, boolean lida) {}
+}
@@ -0,0 +1,103 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.enums.TipoNotificacao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+public class NotificacaoArquivadaRepositoryImpl implements NotificacaoArquivadaRepositoryCustom {
+
+    // Usa o índice (tipo_notificacao, data_criacao); só lê, sem travar: as travas das notificações vêm
+    // depois das dos contadores (SQL_RESERVAR)
+    private static final String SQL_SELECIONAR_EXPIRADAS =
+            "SELECT id_notificacao, id_usuario, id_regiao, lida FROM TB_FLOODLESS_NOTIFICACAO " +
+            "WHERE tipo_notificacao = ? AND data_criacao < ? " +
+            "AND (id_usuario IS NULL OR lida = ? OR data_criacao < ?)";
+
+    // Repete o filtro sobre as candidatas; SKIP LOCKED deixa de fora linhas em uso por outra instância
+    // do job ou por uma leitura sendo marcada
+    private static final String SQL_RESERVAR =
+            "SELECT id_notificacao, id_usuario, id_regiao, lida FROM TB_FLOODLESS_NOTIFICACAO " +
+            "WHERE id_notificacao IN (%s) AND tipo_notificacao = ? AND data_criacao < ? " +
+            "AND (id_usuario IS NULL OR lida = ? OR data_criacao < ?) " +
+            "FOR UPDATE SKIP LOCKED";
+
+    private static final String SQL_COPIAR =
+            "INSERT INTO TB_FLOODLESS_NOTIFICACAO_ARQUIVO (id_notificacao, titulo_notificacao, ms_noticacao, " +
+            "tipo_notificacao, data_criacao, lida, urgente, id_usuario, id_regiao, data_arquivamento) " +
+            "SELECT id_notificacao, titulo_notificacao, ms_noticacao, tipo_notificacao, data_criacao, lida, urgente, " +
+            "id_usuario, id_regiao, ? FROM TB_FLOODLESS_NOTIFICACAO WHERE id_notificacao IN (%s)";
+
+    private static final String SQL_REMOVER_LEITURAS =
+            "DELETE FROM TB_FLOODLESS_LEITURA_NOTIFICACAO WHERE id_notificacao IN (%s)";
+
+    private static final String SQL_REMOVER =
+            "DELETE FROM TB_FLOODLESS_NOTIFICACAO WHERE id_notificacao IN (%s)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<NotificacaoExpirada> buscarExpiradas(TipoNotificacao tipo, LocalDateTime limite, LocalDateTime limiteNaoLidas, int quantidade) {
+        return jdbcTemplate.query(conexao -> {
+            PreparedStatement ps = conexao.prepareStatement(SQL_SELECIONAR_EXPIRADAS);
+            ps.setString(1, tipo.name());
+            ps.setTimestamp(2, Timestamp.valueOf(limite));
+            ps.setBoolean(3, true);
+            ps.setTimestamp(4, Timestamp.valueOf(limiteNaoLidas));
+            ps.setMaxRows(quantidade);
+            ps.setFetchSize(quantidade);
+            return ps;
+        }, this::mapear);
+    }
+
+    @Override
+    public List<NotificacaoExpirada> reservar(List<Long> ids, TipoNotificacao tipo, LocalDateTime limite, LocalDateTime limiteNaoLidas) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String sql = String.format(SQL_RESERVAR, String.join(",", Collections.nCopies(ids.size(), "?")));
+        return jdbcTemplate.query(conexao -> {
+            PreparedStatement ps = conexao.prepareStatement(sql);
+            int indice = 1;
+            for (Long id : ids) {
+                ps.setLong(indice++, id);
+            }
+            ps.setString(indice++, tipo.name());
+            ps.setTimestamp(indice++, Timestamp.valueOf(limite));
+            ps.setBoolean(indice++, true);
+            ps.setTimestamp(indice, Timestamp.valueOf(limiteNaoLidas));
+            ps.setFetchSize(ids.size());
+            return ps;
+        }, this::mapear);
+    }
+
+    private NotificacaoExpirada mapear(ResultSet rs, int linha) throws SQLException {
+        long usuarioId = rs.getLong("id_usuario");
+        return new NotificacaoExpirada(rs.getLong("id_notificacao"), rs.wasNull() ? null : usuarioId,
+                rs.getLong("id_regiao"), rs.getBoolean("lida"));
+    }
+
+    @Override
+    public int arquivar(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String marcadores = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Object[] parametros = ids.toArray();
+        Object[] parametrosCopia = new Object[ids.size() + 1];
+        parametrosCopia[0] = Timestamp.valueOf(LocalDateTime.now());
+        System.arraycopy(parametros, 0, parametrosCopia, 1, parametros.length);
+
+        jdbcTemplate.update(String.format(SQL_COPIAR, marcadores), parametrosCopia);
+        jdbcTemplate.update(String.format(SQL_REMOVER_LEITURAS, marcadores), parametros);
+        return jdbcTemplate.update(String.format(SQL_REMOVER, marcadores), parametros);
+    }
+}
@@ -1,21 +1,56 @@
 package br.com.fiap.Floodless.repositories;
 
 import br.com.fiap.Floodless.model.entities.Notificacao;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface NotificacaoRepository extends JpaRepository<Notificacao, Long> {
+public interface NotificacaoRepository extends JpaRepository<Notificacao, Long>, NotificacaoRepositoryCustom {
     
-    List<Notificacao> findAllByOrderByUrgenteDescDataCriacaoDesc();
-    
-    List<Notificacao> findByRegiaoIdOrderByDataCriacaoDesc(Long regiaoId);
-    
-    List<Notificacao> findByUsuarioIdOrderByDataCriacaoDesc(Long usuarioId);
-    
-    List<Notificacao> findByLidaFalseOrderByUrgenteDescDataCriacaoDesc();
-    
-    List<Notificacao> findByUsuarioIdAndLidaFalse(Long usuarioId);
+    @Modifying
+    @Transactional
+    @Query("update Notificacao n set n.lida = true where n.usuario.id = :usuarioId and n.lida = false")
+    int marcarTodasComoLidas(@Param("usuarioId") Long usuarioId);
+
+    // Condicional: de duas marcações simultâneas só uma altera a linha e desconta o contador
+    @Modifying
+    @Transactional
+    @Query("update Notificacao n set n.lida = true where n.id = :id and n.lida = false")
+    int marcarComoLida(@Param("id") Long id);
+
+    long countByUsuarioIdAndLidaFalse(Long usuarioId);
+
+    long countByRegiaoIdAndUsuarioIsNull(Long regiaoId);
+
+    // Reenvio após reconexão SSE (Last-Event-ID): notificações depois da posição (dataCriacao, id)
+    // informada, pelos índices IX_NOTIFICACAO_CAIXA_*
+    @Query("select n from Notificacao n where n.usuario.id = :usuarioId " +
+           "and (n.dataCriacao > :data or (n.dataCriacao = :data and n.id > :id)) " +
+           "order by n.dataCriacao, n.id")
+    List<Notificacao> findReenvioUsuario(@Param("usuarioId") Long usuarioId, @Param("data") LocalDateTime data, @Param("id") Long id, Limit limite);
+
+    @Query("select n from Notificacao n where n.regiao.id = :regiaoId and n.usuario is null " +
+           "and (n.dataCriacao > :data or (n.dataCriacao = :data and n.id > :id)) " +
+           "order by n.dataCriacao, n.id")
+    List<Notificacao> findReenvioRegiao(@Param("regiaoId") Long regiaoId, @Param("data") LocalDateTime data, @Param("id") Long id, Limit limite);
+
+    // Notificações anteriores à posição, mas criadas dentro da janela: transações que começaram antes
+    // e terminaram depois da notificação que o cliente viu por último
+    @Query("select n from Notificacao n where n.usuario.id = :usuarioId and n.dataCriacao >= :desde " +
+           "and (n.dataCriacao < :data or (n.dataCriacao = :data and n.id < :id)) " +
+           "order by n.dataCriacao, n.id")
+    List<Notificacao> findAtrasadasUsuario(@Param("usuarioId") Long usuarioId, @Param("desde") LocalDateTime desde, @Param("data") LocalDateTime data, @Param("id") Long id, Limit limite);
+
+    @Query("select n from Notificacao n where n.regiao.id = :regiaoId and n.usuario is null and n.dataCriacao >= :desde " +
+           "and (n.dataCriacao < :data or (n.dataCriacao = :data and n.id < :id)) " +
+           "order by n.dataCriacao, n.id")
+    List<Notificacao> findAtrasadasRegiao(@Param("regiaoId") Long regiaoId, @Param("desde") LocalDateTime desde, @Param("data") LocalDateTime data, @Param("id") Long id, Limit limite);
 }
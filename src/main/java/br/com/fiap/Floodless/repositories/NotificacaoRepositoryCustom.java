@@ -0,0 +1,24 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.entities.Notificacao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NotificacaoRepositoryCustom {
+
+    // Grava uma cópia da notificação para cada usuário informado; devolve os IDs na ordem dos usuários
+    long[] inserirParaUsuarios(Notificacao modelo, List<Long> usuarioIds);
+
+    // Notificações com a urgência informada, em ordem (dataCriacao, id) decrescente, a partir da
+    // posição informada (exclusiva); sem posição, a partir do início
+    List<Notificacao> buscarPagina(FiltroNotificacao filtro, boolean urgente, LocalDateTime dataCriacao, Long id, int limite);
+
+    // Caixa de entrada do usuário: as notificações pessoais e as da região inteira (sem usuário), cada
+    // fluxo em ordem (dataCriacao, id) decrescente a partir da posição informada, em uma única consulta
+    FluxosCaixaEntrada buscarCaixaEntrada(Long usuarioId, Long regiaoId, LocalDateTime dataCriacao, Long id, int limite);
+
+    record FiltroNotificacao(Long regiaoId, Long usuarioId, Boolean lida) {}
+
+    record FluxosCaixaEntrada(List<Notificacao> pessoais, List<Notificacao> daRegiao) {}
+}
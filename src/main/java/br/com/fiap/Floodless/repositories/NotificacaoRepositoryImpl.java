@@ -0,0 +1,207 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.entities.Notificacao;
+import br.com.fiap.Floodless.model.entities.Regiao;
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.model.enums.TipoNotificacao;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class NotificacaoRepositoryImpl implements NotificacaoRepositoryCustom {
+
+    // Mesmo allocationSize da entidade: cada NEXTVAL reserva o bloco (valor - 49 .. valor), como no
+    // otimizador pooled do Hibernate, então os IDs gerados aqui nunca colidem com os do saveAll
+    private static final int ALOCACAO_SEQUENCIA = 50;
+
+    private static final String SQL_RESERVAR_BLOCOS =
+            "SELECT SQ_FLOODLESS_NOTIFICACAO.NEXTVAL FROM DUAL CONNECT BY LEVEL <= ?";
+
+    private static final String SQL_INSERIR =
+            "INSERT INTO TB_FLOODLESS_NOTIFICACAO (id_notificacao, titulo_notificacao, ms_noticacao, tipo_notificacao, " +
+            "data_criacao, lida, urgente, id_usuario, id_regiao) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_COLUNAS_CAIXA =
+            "SELECT n.id_notificacao, n.titulo_notificacao, n.ms_noticacao, n.tipo_notificacao, n.data_criacao, " +
+            "n.lida, n.urgente, r.id_regiao, r.nm_regiao, r.bairro_regiao, r.nivel_risco " +
+            "FROM TB_FLOODLESS_NOTIFICACAO n JOIN TB_FLOODLESS_REGIAO r ON r.id_regiao = n.id_regiao ";
+
+    private static final String SQL_POSICAO_CAIXA =
+            "AND (n.data_criacao < ? OR (n.data_criacao = ? AND n.id_notificacao < ?)) ";
+
+    private static final String SQL_ORDEM_CAIXA =
+            "ORDER BY n.data_criacao DESC, n.id_notificacao DESC FETCH FIRST ? ROWS ONLY";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${floodless.notificacoes.tamanho-lote-envio:1000}")
+    private int tamanhoLote;
+
+    @Override
+    @Transactional
+    public long[] inserirParaUsuarios(Notificacao modelo, List<Long> usuarioIds) {
+        long[] ids = reservarIds(usuarioIds.size());
+        Timestamp dataCriacao = Timestamp.valueOf(modelo.getDataCriacao());
+        String tipo = modelo.getTipo() != null ? modelo.getTipo().name() : null;
+        boolean urgente = Boolean.TRUE.equals(modelo.getUrgente());
+        Long regiaoId = modelo.getRegiao().getId();
+
+        List<Integer> posicoes = new ArrayList<>(usuarioIds.size());
+        for (int i = 0; i < usuarioIds.size(); i++) {
+            posicoes.add(i);
+        }
+        jdbcTemplate.batchUpdate(SQL_INSERIR, posicoes, tamanhoLote, (ps, i) -> {
+            ps.setLong(1, ids[i]);
+            ps.setString(2, modelo.getTitulo());
+            ps.setString(3, modelo.getMensagem());
+            ps.setString(4, tipo);
+            ps.setTimestamp(5, dataCriacao);
+            ps.setBoolean(6, false);
+            ps.setBoolean(7, urgente);
+            ps.setLong(8, usuarioIds.get(i));
+            ps.setLong(9, regiaoId);
+        });
+        return ids;
+    }
+
+    // Cada consulta percorre um único trecho dos índices (filtro, urgente, data_criacao, id_notificacao)
+    // e para no limite, então o custo não cresce com a profundidade da página
+    @Override
+    public List<Notificacao> buscarPagina(FiltroNotificacao filtro, boolean urgente, LocalDateTime dataCriacao, Long id, int limite) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT n FROM Notificacao n JOIN FETCH n.regiao LEFT JOIN FETCH n.usuario WHERE n.urgente = :urgente");
+        if (filtro.regiaoId() != null) {
+            jpql.append(" AND n.regiao.id = :regiaoId");
+        }
+        if (filtro.usuarioId() != null) {
+            jpql.append(" AND n.usuario.id = :usuarioId");
+        }
+        if (filtro.lida() != null) {
+            jpql.append(" AND n.lida = :lida");
+        }
+        if (dataCriacao != null) {
+            jpql.append(" AND (n.dataCriacao < :dataCriacao OR (n.dataCriacao = :dataCriacao AND n.id < :id))");
+        }
+        jpql.append(" ORDER BY n.dataCriacao DESC, n.id DESC");
+
+        TypedQuery<Notificacao> query = entityManager.createQuery(jpql.toString(), Notificacao.class)
+                .setParameter("urgente", urgente)
+                .setMaxResults(limite);
+        if (filtro.regiaoId() != null) {
+            query.setParameter("regiaoId", filtro.regiaoId());
+        }
+        if (filtro.usuarioId() != null) {
+            query.setParameter("usuarioId", filtro.usuarioId());
+        }
+        if (filtro.lida() != null) {
+            query.setParameter("lida", filtro.lida());
+        }
+        if (dataCriacao != null) {
+            query.setParameter("dataCriacao", dataCriacao).setParameter("id", id);
+        }
+        return query.getResultList();
+    }
+
+    // Cada ramo do UNION ALL percorre o seu índice (IX_NOTIFICACAO_CAIXA_USUARIO ou
+    // IX_NOTIFICACAO_CAIXA_REGIAO) e para no limite; a intercalação dos dois fluxos fica com o serviço
+    @Override
+    public FluxosCaixaEntrada buscarCaixaEntrada(Long usuarioId, Long regiaoId, LocalDateTime dataCriacao, Long id, int limite) {
+        String posicao = dataCriacao != null ? SQL_POSICAO_CAIXA : "";
+        StringBuilder sql = new StringBuilder("SELECT 0 AS origem, p.* FROM (")
+                .append(SQL_COLUNAS_CAIXA).append("WHERE n.id_usuario = ? ").append(posicao).append(SQL_ORDEM_CAIXA)
+                .append(") p");
+        List<Object> parametros = new ArrayList<>();
+        parametros.add(usuarioId);
+        adicionarPosicao(parametros, dataCriacao, id);
+        parametros.add(limite);
+        if (regiaoId != null) {
+            sql.append(" UNION ALL SELECT 1 AS origem, g.* FROM (")
+                    .append(SQL_COLUNAS_CAIXA).append("WHERE n.id_regiao = ? AND n.id_usuario IS NULL ").append(posicao)
+                    .append(SQL_ORDEM_CAIXA).append(") g");
+            parametros.add(regiaoId);
+            adicionarPosicao(parametros, dataCriacao, id);
+            parametros.add(limite);
+        }
+
+        List<Notificacao> pessoais = new ArrayList<>();
+        List<Notificacao> daRegiao = new ArrayList<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            (rs.getInt("origem") == 0 ? pessoais : daRegiao).add(mapearCaixa(rs));
+        }, parametros.toArray());
+        return new FluxosCaixaEntrada(pessoais, daRegiao);
+    }
+
+    private void adicionarPosicao(List<Object> parametros, LocalDateTime dataCriacao, Long id) {
+        if (dataCriacao != null) {
+            parametros.add(Timestamp.valueOf(dataCriacao));
+            parametros.add(Timestamp.valueOf(dataCriacao));
+            parametros.add(id);
+        }
+    }
+
+    // Entidades apenas para leitura, com a região preenchida pelas colunas do JOIN
+    private Notificacao mapearCaixa(ResultSet rs) throws SQLException {
+        Regiao regiao = new Regiao();
+        regiao.setId(rs.getLong("id_regiao"));
+        regiao.setNome(rs.getString("nm_regiao"));
+        regiao.setBairro(rs.getString("bairro_regiao"));
+        String nivelRisco = rs.getString("nivel_risco");
+        regiao.setNivelRisco(nivelRisco != null ? NivelRisco.valueOf(nivelRisco) : null);
+
+        Notificacao notificacao = new Notificacao();
+        notificacao.setId(rs.getLong("id_notificacao"));
+        notificacao.setTitulo(rs.getString("titulo_notificacao"));
+        notificacao.setMensagem(rs.getString("ms_noticacao"));
+        String tipo = rs.getString("tipo_notificacao");
+        notificacao.setTipo(tipo != null ? TipoNotificacao.valueOf(tipo) : null);
+        notificacao.setDataCriacao(rs.getTimestamp("data_criacao").toLocalDateTime());
+        notificacao.setLida(rs.getBoolean("lida"));
+        notificacao.setUrgente(rs.getBoolean("urgente"));
+        notificacao.setRegiao(regiao);
+        return notificacao;
+    }
+
+    // Uma única consulta reserva todos os blocos necessários
+    private long[] reservarIds(int quantidade) {
+        long[] ids = new long[quantidade];
+        if (quantidade == 0) {
+            return ids;
+        }
+        int blocos = (quantidade + ALOCACAO_SEQUENCIA - 1) / ALOCACAO_SEQUENCIA;
+        List<Long> limites = jdbcTemplate.queryForList(SQL_RESERVAR_BLOCOS, Long.class, blocos);
+
+        int i = 0;
+        for (Long limite : limites) {
+            for (long id = Math.max(1, limite - ALOCACAO_SEQUENCIA + 1); id <= limite && i < quantidade; id++) {
+                ids[i++] = id;
+            }
+        }
+        if (i < quantidade) {
+            // Só acontece no primeiro bloco de uma sequência recém-criada, que começa em 1
+            limites = jdbcTemplate.queryForList(SQL_RESERVAR_BLOCOS, Long.class,
+                    (quantidade - i + ALOCACAO_SEQUENCIA - 1) / ALOCACAO_SEQUENCIA);
+            for (Long limite : limites) {
+                for (long id = limite - ALOCACAO_SEQUENCIA + 1; id <= limite && i < quantidade; id++) {
+                    ids[i++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.entities.ObservacaoClimatica;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ObservacaoClimaticaRepository extends JpaRepository<ObservacaoClimatica, Long>, ObservacaoClimaticaRepositoryCustom {
+    Optional<ObservacaoClimatica> findFirstByRegiaoIdOrderByDataObservacaoDesc(Long regiaoId);
+}
@@ -0,0 +1,19 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.entities.ObservacaoClimatica;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public interface ObservacaoClimaticaRepositoryCustom {
+
+    void inserirEmLote(List<ObservacaoClimatica> observacoes);
+
+    // Percorre as observações do período em ordem cronológica sem carregá-las todas em memória
+    void percorrerPeriodo(Long regiaoId, LocalDateTime de, LocalDateTime ate, Consumer<ObservacaoClimatica> consumidor);
+
+    // Horário da observação mais recente de cada região com observações a partir de "desde"
+    Map<Long, LocalDateTime> buscarUltimasDesde(LocalDateTime desde);
+}
@@ -0,0 +1,133 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.entities.ObservacaoClimatica;
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class ObservacaoClimaticaRepositoryImpl implements ObservacaoClimaticaRepositoryCustom {
+
+    // Observação já gravada para a região e horário (previsão repetida) é ignorada
+    private static final String SQL_INSERIR =
+            "MERGE INTO TB_FLOODLESS_OBSERVACAO o " +
+            "USING (SELECT ? id_regiao, ? dt_observacao FROM DUAL) n " +
+            "ON (o.id_regiao = n.id_regiao AND o.dt_observacao = n.dt_observacao) " +
+            "WHEN NOT MATCHED THEN INSERT (id_observacao, id_regiao, dt_observacao, temperatura, precipitacao, " +
+            "chuva, pancadas, codigo_tempo, nivel_chuva, nivel_risco, serie_horaria) " +
+            "VALUES (SQ_FLOODLESS_OBSERVACAO.NEXTVAL, n.id_regiao, n.dt_observacao, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Usa a chave única (id_regiao, dt_observacao) e já devolve as linhas na ordem do índice
+    private static final String SQL_PERIODO =
+            "SELECT id_observacao, id_regiao, dt_observacao, temperatura, precipitacao, chuva, pancadas, " +
+            "codigo_tempo, nivel_chuva, nivel_risco, serie_horaria " +
+            "FROM TB_FLOODLESS_OBSERVACAO " +
+            "WHERE id_regiao = ? AND dt_observacao >= ? AND dt_observacao < ? " +
+            "ORDER BY dt_observacao";
+
+    // Usa o índice IX_OBSERVACAO_DATA: só as observações gravadas desde a última sincronização
+    private static final String SQL_ULTIMAS_DESDE =
+            "SELECT id_regiao, MAX(dt_observacao) dt_observacao FROM TB_FLOODLESS_OBSERVACAO " +
+            "WHERE dt_observacao >= ? GROUP BY id_regiao";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${floodless.historico.fetch-size:500}")
+    private int fetchSize;
+
+    @Override
+    @Transactional
+    public void inserirEmLote(List<ObservacaoClimatica> observacoes) {
+        try {
+            executarLote(observacoes);
+        } catch (DuplicateKeyException e) {
+            // Outra instância gravou a mesma observação entre o MERGE e o INSERT; na segunda
+            // passada o MERGE encontra a linha e a ignora
+            executarLote(observacoes);
+        }
+    }
+
+    private void executarLote(List<ObservacaoClimatica> observacoes) {
+        jdbcTemplate.batchUpdate(SQL_INSERIR, observacoes, observacoes.size(), (ps, o) -> {
+            ps.setLong(1, o.getRegiaoId());
+            ps.setTimestamp(2, Timestamp.valueOf(o.getDataObservacao()));
+            setDouble(ps, 3, o.getTemperatura());
+            setDouble(ps, 4, o.getPrecipitacao());
+            setDouble(ps, 5, o.getChuva());
+            setDouble(ps, 6, o.getPancadas());
+            if (o.getCodigoTempo() != null) {
+                ps.setInt(7, o.getCodigoTempo());
+            } else {
+                ps.setNull(7, Types.INTEGER);
+            }
+            setDouble(ps, 8, o.getNivelChuva());
+            ps.setString(9, o.getNivelRisco() != null ? o.getNivelRisco().name() : null);
+            ps.setBytes(10, o.getSerieHoraria());
+        });
+    }
+
+    @Override
+    public void percorrerPeriodo(Long regiaoId, LocalDateTime de, LocalDateTime ate, Consumer<ObservacaoClimatica> consumidor) {
+        jdbcTemplate.query(conexao -> {
+            PreparedStatement ps = conexao.prepareStatement(SQL_PERIODO);
+            ps.setLong(1, regiaoId);
+            ps.setTimestamp(2, Timestamp.valueOf(de));
+            ps.setTimestamp(3, Timestamp.valueOf(ate));
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumidor.accept(mapear(rs)));
+    }
+
+    private static ObservacaoClimatica mapear(ResultSet rs) throws SQLException {
+        ObservacaoClimatica o = new ObservacaoClimatica(
+                rs.getLong("id_regiao"),
+                rs.getTimestamp("dt_observacao").toLocalDateTime(),
+                getDouble(rs, "temperatura"),
+                getDouble(rs, "precipitacao"),
+                getDouble(rs, "chuva"),
+                getDouble(rs, "pancadas"),
+                rs.getObject("codigo_tempo") != null ? rs.getInt("codigo_tempo") : null,
+                getDouble(rs, "nivel_chuva"),
+                rs.getString("nivel_risco") != null ? NivelRisco.valueOf(rs.getString("nivel_risco")) : null,
+                rs.getBytes("serie_horaria"));
+        o.setId(rs.getLong("id_observacao"));
+        return o;
+    }
+
+    private static void setDouble(PreparedStatement ps, int indice, Double valor) throws SQLException {
+        if (valor != null && !valor.isNaN()) {
+            ps.setDouble(indice, valor);
+        } else {
+            ps.setNull(indice, Types.DOUBLE);
+        }
+    }
+
+    private static Double getDouble(ResultSet rs, String coluna) throws SQLException {
+        double valor = rs.getDouble(coluna);
+        return rs.wasNull() ? null : valor;
+    }
+
+    @Override
+    public Map<Long, LocalDateTime> buscarUltimasDesde(LocalDateTime desde) {
+        Map<Long, LocalDateTime> ultimas = new HashMap<>();
+        jdbcTemplate.query(SQL_ULTIMAS_DESDE,
+                (RowCallbackHandler) rs -> ultimas.put(rs.getLong("id_regiao"), rs.getTimestamp("dt_observacao").toLocalDateTime()),
+                Timestamp.valueOf(desde));
+        return ultimas;
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.entities.PerfilLimiar;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PerfilLimiarRepository extends JpaRepository<PerfilLimiar, Long> {
+    boolean existsByRegiaoIdAndIdNot(Long regiaoId, Long id);
+
+    boolean existsByRegiaoId(Long regiaoId);
+}
@@ -1,12 +1,72 @@
 package br.com.fiap.Floodless.repositories;
 
 import br.com.fiap.Floodless.model.entities.Regiao;
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.model.enums.StatusEnriquecimento;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface RegiaoRepository extends JpaRepository<Regiao, Long> {
+public interface RegiaoRepository extends JpaRepository<Regiao, Long>, RegiaoRepositoryCustom {
     List<Regiao> findByEstadoIgnoreCase(String estado);
-} 
\ No newline at end of file
+
+    // Regiões a enriquecer: pendentes ou em processamento por uma instância cujo lease venceu
+    @Query(value = "SELECT id_regiao FROM TB_FLOODLESS_REGIAO WHERE status_enriquecimento = 'PENDENTE' " +
+                   "OR (status_enriquecimento = 'PROCESSANDO' AND (lease_enriquecimento IS NULL OR lease_enriquecimento < :agora))",
+           nativeQuery = true)
+    List<Long> findIdsEnriquecimentoPendente(@Param("agora") LocalDateTime agora);
+
+    // Reserva atômica: só uma instância passa a região para PROCESSANDO; as demais recebem 0
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE TB_FLOODLESS_REGIAO SET status_enriquecimento = 'PROCESSANDO', lease_enriquecimento = :leaseAte " +
+                   "WHERE id_regiao = :id AND (status_enriquecimento = 'PENDENTE' " +
+                   "OR (status_enriquecimento = 'PROCESSANDO' AND (lease_enriquecimento IS NULL OR lease_enriquecimento < :agora)))",
+           nativeQuery = true)
+    int reservarEnriquecimento(@Param("id") Long id, @Param("agora") LocalDateTime agora, @Param("leaseAte") LocalDateTime leaseAte);
+
+    @Modifying
+    @Transactional
+    @Query("update Regiao r set r.statusEnriquecimento = :status where r.id = :id")
+    int atualizarStatusEnriquecimento(@Param("id") Long id, @Param("status") StatusEnriquecimento status);
+
+    // Grava somente os dados climáticos, sem sobrescrever alterações feitas na região durante o enriquecimento
+    @Modifying
+    @Transactional
+    @Query("update Regiao r set r.temperatura = :temperatura, r.nivelChuva = :nivelChuva, r.nivelRisco = :nivelRisco, " +
+           "r.areaRisco = :areaRisco, r.ultimaAtualizacao = :ultimaAtualizacao, r.statusEnriquecimento = :status " +
+           "where r.id = :id")
+    int atualizarDadosClimaticos(@Param("id") Long id,
+                                 @Param("temperatura") Double temperatura,
+                                 @Param("nivelChuva") Double nivelChuva,
+                                 @Param("nivelRisco") NivelRisco nivelRisco,
+                                 @Param("areaRisco") Boolean areaRisco,
+                                 @Param("ultimaAtualizacao") LocalDateTime ultimaAtualizacao,
+                                 @Param("status") StatusEnriquecimento status);
+
+    // Contador de notificações da região inteira; nulo permanece nulo até ser recalculado
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE TB_FLOODLESS_REGIAO SET qt_notificacoes_regiao = qt_notificacoes_regiao + :quantidade " +
+                   "WHERE id_regiao = :id", nativeQuery = true)
+    int somarNotificacoesRegiao(@Param("id") Long id, @Param("quantidade") long quantidade);
+
+    // Trava a linha da região até o fim da transação, para recontar sem perder incrementos concorrentes
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "SELECT id_regiao FROM TB_FLOODLESS_REGIAO WHERE id_regiao = :id FOR UPDATE", nativeQuery = true)
+    Long travarContador(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE TB_FLOODLESS_REGIAO SET qt_notificacoes_regiao = :quantidade " +
+                   "WHERE id_regiao = :id AND qt_notificacoes_regiao IS NULL", nativeQuery = true)
+    int definirNotificacoesRegiao(@Param("id") Long id, @Param("quantidade") Long quantidade);
+}
@@ -0,0 +1,20 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.entities.Regiao;
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+
+import java.util.List;
+import java.util.Map;
+
+public interface RegiaoRepositoryCustom {
+
+    // Grava apenas as colunas climáticas das regiões em um único lote JDBC
+    int[] atualizarDadosClimaticosEmLote(List<Regiao> regioes);
+
+    // Somente as colunas usadas na classificação de risco, sem montar entidades
+    List<ClassificacaoRegiao> listarClassificacoes();
+
+    int[] atualizarNiveisRiscoEmLote(Map<Long, NivelRisco> niveis);
+
+    record ClassificacaoRegiao(long id, String cidade, String estado, Double nivelChuva, NivelRisco nivelRisco) {}
+}
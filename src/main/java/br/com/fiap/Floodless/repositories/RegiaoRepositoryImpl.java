@@ -0,0 +1,105 @@
+package br.com.fiap.Floodless.repositories;
+
+import br.com.fiap.Floodless.model.entities.Regiao;
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.risco.MotorRisco;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class RegiaoRepositoryImpl implements RegiaoRepositoryCustom {
+
+    // Não toca em nome, endereço nem relacionamentos: uma edição feita pela API durante a
+    // varredura não é sobrescrita
+    private static final String SQL_ATUALIZAR_DADOS_CLIMATICOS =
+            "UPDATE TB_FLOODLESS_REGIAO " +
+            "SET temp_regiao = ?, nivel_chuva = ?, nivel_risco = ?, area_risco = ?, ultima_atualizacao = ? " +
+            "WHERE id_regiao = ?";
+
+    private static final String SQL_LISTAR_CLASSIFICACOES =
+            "SELECT id_regiao, cidade_regiao, estado_regiao, nivel_chuva, nivel_risco FROM TB_FLOODLESS_REGIAO";
+
+    private static final String SQL_ATUALIZAR_NIVEL_RISCO =
+            "UPDATE TB_FLOODLESS_REGIAO SET nivel_risco = ?, area_risco = ? WHERE id_regiao = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public int[] atualizarDadosClimaticosEmLote(List<Regiao> regioes) {
+        return jdbcTemplate.batchUpdate(SQL_ATUALIZAR_DADOS_CLIMATICOS, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Regiao regiao = regioes.get(i);
+                setDouble(ps, 1, regiao.getTemperatura());
+                setDouble(ps, 2, regiao.getNivelChuva());
+                ps.setString(3, regiao.getNivelRisco() != null ? regiao.getNivelRisco().name() : null);
+                ps.setBoolean(4, Boolean.TRUE.equals(regiao.getAreaRisco()));
+                ps.setTimestamp(5, regiao.getUltimaAtualizacao() != null
+                        ? Timestamp.valueOf(regiao.getUltimaAtualizacao())
+                        : null);
+                ps.setLong(6, regiao.getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return regioes.size();
+            }
+        });
+    }
+
+    private static void setDouble(PreparedStatement ps, int indice, Double valor) throws SQLException {
+        if (valor != null) {
+            ps.setDouble(indice, valor);
+        } else {
+            ps.setNull(indice, Types.DOUBLE);
+        }
+    }
+
+    @Override
+    public List<ClassificacaoRegiao> listarClassificacoes() {
+        return jdbcTemplate.query(SQL_LISTAR_CLASSIFICACOES, (rs, linha) -> {
+            Double nivelChuva = rs.getDouble("nivel_chuva");
+            if (rs.wasNull()) {
+                nivelChuva = null;
+            }
+            String nivelRisco = rs.getString("nivel_risco");
+            return new ClassificacaoRegiao(
+                    rs.getLong("id_regiao"),
+                    rs.getString("cidade_regiao"),
+                    rs.getString("estado_regiao"),
+                    nivelChuva,
+                    nivelRisco != null ? NivelRisco.valueOf(nivelRisco) : null);
+        });
+    }
+
+    @Override
+    @Transactional
+    public int[] atualizarNiveisRiscoEmLote(Map<Long, NivelRisco> niveis) {
+        List<Map.Entry<Long, NivelRisco>> entradas = new ArrayList<>(niveis.entrySet());
+        return jdbcTemplate.batchUpdate(SQL_ATUALIZAR_NIVEL_RISCO, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<Long, NivelRisco> entrada = entradas.get(i);
+                ps.setString(1, entrada.getValue().name());
+                ps.setBoolean(2, MotorRisco.areaRisco(entrada.getValue()));
+                ps.setLong(3, entrada.getKey());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entradas.size();
+            }
+        });
+    }
+}
@@ -2,8 +2,14 @@ package br.com.fiap.Floodless.repositories;
 
 import br.com.fiap.Floodless.model.entities.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,8 +22,49 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     List<Usuario> findByRegiaoIdAndReceberNotificacoesTrue(Long regiaoId);
     
     List<Usuario> findByRegiaoIdAndReceberAlertasTrue(Long regiaoId);
+
+    // Apenas os IDs do público de um alerta, sem carregar as entidades
+    @Query("SELECT u.id FROM Usuario u WHERE u.regiao.id = :regiaoId AND u.receberAlertas = true")
+    List<Long> findIdsByRegiaoIdAndReceberAlertasTrue(@Param("regiaoId") Long regiaoId);
     
     List<Usuario> findByReceberNotificacoesTrue();
     
     List<Usuario> findByReceberAlertasTrue();
+
+    // Contadores da caixa de entrada; nulo permanece nulo até ser recalculado
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE TB_FLOODLESS_USUARIO SET qt_nao_lidas_pessoais = GREATEST(qt_nao_lidas_pessoais + :quantidade, 0) " +
+                   "WHERE id_usuario = :id", nativeQuery = true)
+    int somarNaoLidasPessoais(@Param("id") Long id, @Param("quantidade") long quantidade);
+
+    // Com receberAlertas = true, o mesmo público de findIdsByRegiaoIdAndReceberAlertasTrue
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE TB_FLOODLESS_USUARIO SET qt_nao_lidas_pessoais = qt_nao_lidas_pessoais + 1 " +
+                   "WHERE id_regiao = :regiaoId AND receber_alertas = :receberAlertas", nativeQuery = true)
+    int incrementarNaoLidasPessoaisDaRegiao(@Param("regiaoId") Long regiaoId, @Param("receberAlertas") boolean receberAlertas);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE TB_FLOODLESS_USUARIO SET qt_lidas_regiao = GREATEST(qt_lidas_regiao + :quantidade, 0) " +
+                   "WHERE id_usuario IN (:ids) AND id_regiao = :regiaoId", nativeQuery = true)
+    int somarLidasRegiao(@Param("ids") Collection<Long> ids, @Param("regiaoId") Long regiaoId, @Param("quantidade") long quantidade);
+
+    // Trava a linha do usuário até o fim da transação: os incrementos concorrentes esperam enquanto
+    // os contadores são recontados e gravados com definirContadores
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "SELECT id_usuario FROM TB_FLOODLESS_USUARIO WHERE id_usuario = :id FOR UPDATE", nativeQuery = true)
+    Long travarContadores(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE TB_FLOODLESS_USUARIO SET qt_nao_lidas_pessoais = :pessoais, qt_lidas_regiao = :lidasRegiao " +
+                   "WHERE id_usuario = :id", nativeQuery = true)
+    int definirContadores(@Param("id") Long id, @Param("pessoais") Long pessoais, @Param("lidasRegiao") Long lidasRegiao);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE TB_FLOODLESS_USUARIO SET qt_lidas_regiao = NULL WHERE id_usuario = :id", nativeQuery = true)
+    int invalidarLidasRegiao(@Param("id") Long id);
 }
@@ -0,0 +1,100 @@
+package br.com.fiap.Floodless.risco;
+
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+
+// Entradas e saídas do MotorRisco em arrays paralelos (uma posição por região). O lote é
+// alocado uma vez e pode ser reaproveitado: classificar só escreve nos arrays de saída.
+public final class LoteRisco {
+    private static final NivelRisco[] NIVEIS = NivelRisco.values();
+
+    final double[] chuvaAtual;
+    final double[] chuva;
+    final double[] pancadas;
+    final double[] probabilidadeMedia;
+    final double[] precipitacaoTotal;
+    final int[] codigoTempo;
+    final MotorRisco.Limiares[] limiares;
+
+    final double[] nivelChuva;
+    final byte[] nivelRisco;
+
+    private int tamanho;
+
+    public LoteRisco(int capacidade) {
+        chuvaAtual = new double[capacidade];
+        chuva = new double[capacidade];
+        pancadas = new double[capacidade];
+        probabilidadeMedia = new double[capacidade];
+        precipitacaoTotal = new double[capacidade];
+        codigoTempo = new int[capacidade];
+        limiares = new MotorRisco.Limiares[capacidade];
+        nivelChuva = new double[capacidade];
+        nivelRisco = new byte[capacidade];
+    }
+
+    public void definir(int i, double chuvaAtual, double chuva, double pancadas, int codigoTempo,
+                        double probabilidadeMedia, double precipitacaoTotal) {
+        this.chuvaAtual[i] = chuvaAtual;
+        this.chuva[i] = chuva;
+        this.pancadas[i] = pancadas;
+        this.codigoTempo[i] = codigoTempo;
+        this.probabilidadeMedia[i] = probabilidadeMedia;
+        this.precipitacaoTotal[i] = precipitacaoTotal;
+        if (i >= tamanho) {
+            tamanho = i + 1;
+        }
+    }
+
+    // Limiares próprios da posição (perfil da região); null usa os limiares passados ao MotorRisco
+    public void definirLimiares(int i, MotorRisco.Limiares limiares) {
+        this.limiares[i] = limiares;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public void setTamanho(int tamanho) {
+        if (tamanho < 0 || tamanho > chuvaAtual.length) {
+            throw new IllegalArgumentException("Tamanho fora da capacidade do lote: " + tamanho);
+        }
+        this.tamanho = tamanho;
+    }
+
+    public int getCapacidade() {
+        return chuvaAtual.length;
+    }
+
+    public double nivelChuva(int i) {
+        return nivelChuva[i];
+    }
+
+    public NivelRisco nivelRisco(int i) {
+        return NIVEIS[nivelRisco[i]];
+    }
+
+    // Acesso direto aos arrays de entrada para quem já tem os dados nesse formato (simulações)
+    public double[] getChuvaAtual() {
+        return chuvaAtual;
+    }
+
+    public double[] getChuva() {
+        return chuva;
+    }
+
+    public double[] getPancadas() {
+        return pancadas;
+    }
+
+    public double[] getProbabilidadeMedia() {
+        return probabilidadeMedia;
+    }
+
+    public double[] getPrecipitacaoTotal() {
+        return precipitacaoTotal;
+    }
+
+    public int[] getCodigoTempo() {
+        return codigoTempo;
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.fiap.Floodless.risco;
+
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Cálculo do nível de chuva e classificação de risco. A versão em lote percorre os arrays do
+// LoteRisco em um único laço sem alocação nem boxing; acima de alguns milhares de regiões o
+// lote pode ser dividido entre as threads de um ForkJoinPool.
+public final class MotorRisco {
+
+    // Abaixo disso o custo de dividir a tarefa supera o ganho do paralelismo
+    private static final int LIMITE_SEQUENCIAL = 4096;
+
+    private static final NivelRisco[] NIVEIS = NivelRisco.values();
+
+    private static final byte BAIXO = (byte) NivelRisco.BAIXO.ordinal();
+    private static final byte MODERADO = (byte) NivelRisco.MODERADO.ordinal();
+    private static final byte ALTO = (byte) NivelRisco.ALTO.ordinal();
+    private static final byte CRITICO = (byte) NivelRisco.CRITICO.ordinal();
+
+    // Limites do nível de chuva para cada nível de risco (valores acima do limite sobem de nível)
+    public record Limiares(double moderado, double alto, double critico) {
+        // Até 25mm/h - Chuva fraca a moderada
+        // 25-45mm/h - Chuva forte; 45-65mm/h - Chuva muito forte; >65mm/h - Chuva extrema
+        public static final Limiares PADRAO = new Limiares(25.0, 45.0, 65.0);
+
+        public Limiares {
+            if (!(moderado < alto && alto < critico)) {
+                throw new IllegalArgumentException("Os limiares devem ser crescentes: moderado < alto < crítico");
+            }
+        }
+    }
+
+    private MotorRisco() {}
+
+    public static double nivelChuva(double chuvaAtual, double chuva, double pancadas, int codigoTempo,
+                                    double probabilidadeMedia, double precipitacaoTotal) {
+        // Nível base é a soma da chuva atual, chuva e pancadas de chuva
+        double nivelBase = chuvaAtual + chuva + pancadas;
+
+        // Adicionar fator de previsão (precipitação total prevista para 24h)
+        nivelBase += (precipitacaoTotal * 0.5);
+
+        // Aumentar nível baseado na probabilidade média de chuva
+        nivelBase *= (1 + (probabilidadeMedia / 100.0));
+
+        // Ajustar baseado no código do tempo
+        return nivelBase * multiplicadorCodigo(codigoTempo);
+    }
+
+    public static NivelRisco classificar(double nivelChuva, Limiares limiares) {
+        return NIVEIS[ordinalRisco(nivelChuva, limiares)];
+    }
+
+    public static boolean areaRisco(NivelRisco nivelRisco) {
+        return nivelRisco == NivelRisco.ALTO || nivelRisco == NivelRisco.CRITICO;
+    }
+
+    // Posições com limiares próprios no lote (LoteRisco.definirLimiares) usam esses; as demais usam os informados
+    public static void classificar(LoteRisco lote, Limiares limiares) {
+        classificarIntervalo(lote, limiares, 0, lote.getTamanho());
+    }
+
+    public static void classificarParalelo(LoteRisco lote, Limiares limiares) {
+        classificarParalelo(lote, limiares, ForkJoinPool.commonPool());
+    }
+
+    public static void classificarParalelo(LoteRisco lote, Limiares limiares, ForkJoinPool pool) {
+        if (lote.getTamanho() <= LIMITE_SEQUENCIAL) {
+            classificar(lote, limiares);
+            return;
+        }
+        pool.invoke(new Classificacao(lote, limiares, 0, lote.getTamanho()));
+    }
+
+    private static void classificarIntervalo(LoteRisco lote, Limiares limiares, int inicio, int fim) {
+        double[] chuvaAtual = lote.chuvaAtual;
+        double[] chuva = lote.chuva;
+        double[] pancadas = lote.pancadas;
+        double[] probabilidadeMedia = lote.probabilidadeMedia;
+        double[] precipitacaoTotal = lote.precipitacaoTotal;
+        int[] codigoTempo = lote.codigoTempo;
+        Limiares[] limiaresRegiao = lote.limiares;
+        double[] nivelChuva = lote.nivelChuva;
+        byte[] nivelRisco = lote.nivelRisco;
+
+        for (int i = inicio; i < fim; i++) {
+            double nivel = nivelChuva(chuvaAtual[i], chuva[i], pancadas[i], codigoTempo[i],
+                    probabilidadeMedia[i], precipitacaoTotal[i]);
+            nivelChuva[i] = nivel;
+            nivelRisco[i] = ordinalRisco(nivel, limiaresRegiao[i] != null ? limiaresRegiao[i] : limiares);
+        }
+    }
+
+    private static byte ordinalRisco(double nivelChuva, Limiares limiares) {
+        if (nivelChuva > limiares.critico()) {
+            return CRITICO;
+        } else if (nivelChuva > limiares.alto()) {
+            return ALTO;
+        } else if (nivelChuva > limiares.moderado()) {
+            return MODERADO;
+        }
+        return BAIXO;
+    }
+
+    private static double multiplicadorCodigo(int codigoTempo) {
+        if (codigoTempo >= 95) { // Tempestade forte
+            return 2.0;
+        } else if (codigoTempo >= 80) { // Chuva forte
+            return 1.5;
+        } else if (codigoTempo >= 60) { // Chuva moderada
+            return 1.2;
+        }
+        return 1.0;
+    }
+
+    private static final class Classificacao extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final LoteRisco lote;
+        private final Limiares limiares;
+        private final int inicio;
+        private final int fim;
+
+        Classificacao(LoteRisco lote, Limiares limiares, int inicio, int fim) {
+            this.lote = lote;
+            this.limiares = limiares;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio <= LIMITE_SEQUENCIAL) {
+                classificarIntervalo(lote, limiares, inicio, fim);
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            invokeAll(new Classificacao(lote, limiares, inicio, meio),
+                      new Classificacao(lote, limiares, meio, fim));
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package br.com.fiap.Floodless.service;
+
+import br.com.fiap.Floodless.model.entities.JobAtualizacao;
+import br.com.fiap.Floodless.model.entities.Regiao;
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.repositories.JobAtualizacaoRepository;
+import br.com.fiap.Floodless.repositories.RegiaoRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Agenda a atualização de cada região conforme o risco: regiões críticas são consultadas
+// a cada poucos minutos e regiões de baixo risco a cada duas horas. A fila fica persistida em
+// TB_FLOODLESS_JOB_ATUALIZACAO: cada instância reserva um lote de jobs vencidos com lease, de modo
+// que várias instâncias dividem o trabalho e uma varredura interrompida continua após o restart.
+@Service
+public class AgendadorAtualizacaoService {
+    private static final Logger logger = LoggerFactory.getLogger(AgendadorAtualizacaoService.class);
+
+    // Variação mínima do nível de chuva para considerar a chuva em alta
+    private static final double FATOR_TENDENCIA_ALTA = 1.2;
+
+    @Autowired
+    private RegiaoRepository regiaoRepository;
+
+    @Autowired
+    private JobAtualizacaoRepository jobAtualizacaoRepository;
+
+    @Autowired
+    private RegiaoService regiaoService;
+
+    @Value("${floodless.agendador.intervalo-critico-minutos:5}")
+    private long intervaloCriticoMinutos;
+
+    @Value("${floodless.agendador.intervalo-alto-minutos:15}")
+    private long intervaloAltoMinutos;
+
+    @Value("${floodless.agendador.intervalo-moderado-minutos:45}")
+    private long intervaloModeradoMinutos;
+
+    @Value("${floodless.agendador.intervalo-baixo-minutos:120}")
+    private long intervaloBaixoMinutos;
+
+    // Limita quantas regiões entram em cada ciclo para caber na taxa dos provedores
+    @Value("${floodless.agendador.maximo-por-ciclo:200}")
+    private int maximoPorCiclo;
+
+    // Tempo que o job fica reservado; se a instância cair, outra assume depois disso
+    @Value("${floodless.agendador.lease-minutos:10}")
+    private long leaseMinutos;
+
+    private String identificacaoNo;
+
+    @PostConstruct
+    public void definirIdentificacao() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "desconhecido";
+        }
+        identificacaoNo = host + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        sincronizar();
+    }
+
+    // Cria jobs para regiões novas e remove os de regiões excluídas (também por outras instâncias)
+    @Scheduled(fixedDelayString = "${floodless.agendador.intervalo-sincronizacao-ms:600000}",
+               initialDelayString = "${floodless.agendador.intervalo-sincronizacao-ms:600000}")
+    public void sincronizar() {
+        try {
+            List<JobAtualizacao> novos = jobAtualizacaoRepository.findRegioesSemJob().stream()
+                    .map(r -> new JobAtualizacao(r.getId(), calcularVencimento(r, false, false)))
+                    .toList();
+            jobAtualizacaoRepository.saveAll(novos);
+            int removidos = jobAtualizacaoRepository.deleteJobsSemRegiao();
+
+            logger.info("Agendador sincronizado: {} jobs novos, {} removidos", novos.size(), removidos);
+        } catch (DataIntegrityViolationException e) {
+            // Outra instância criou os mesmos jobs ao mesmo tempo; a próxima sincronização completa o que faltar
+            logger.debug("Jobs criados concorrentemente por outra instância: {}", e.getMessage());
+        } catch (Exception e) {
+            logger.error("Erro ao sincronizar agendador: {} - {}", e.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${floodless.agendador.intervalo-verificacao-ms:30000}")
+    public void executarVencidas() {
+        List<Long> ids;
+        try {
+            ids = jobAtualizacaoRepository.reservarVencidos(maximoPorCiclo, identificacaoNo, Duration.ofMinutes(leaseMinutos));
+        } catch (Exception e) {
+            logger.error("Erro ao reservar jobs de atualização: {} - {}", e.getClass().getSimpleName(), e.getMessage());
+            return;
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        List<Regiao> regioes = regiaoRepository.findAllById(ids);
+        Map<Long, Double> chuvaAnterior = new HashMap<>();
+        regioes.forEach(r -> chuvaAnterior.put(r.getId(), r.getNivelChuva()));
+
+        logger.info("Agendador ({}): atualizando {} regiões vencidas", identificacaoNo, regioes.size());
+        try {
+            regiaoService.atualizarRegioes(regioes);
+        } finally {
+            Map<Long, LocalDateTime> proximasExecucoes = new HashMap<>();
+            for (Regiao regiao : regioes) {
+                boolean chuvaEmAlta = emAlta(chuvaAnterior.get(regiao.getId()), regiao.getNivelChuva());
+                proximasExecucoes.put(regiao.getId(), calcularVencimento(regiao, chuvaEmAlta, true));
+            }
+            jobAtualizacaoRepository.concluir(proximasExecucoes, identificacaoNo);
+
+            // Jobs de regiões excluídas depois da reserva
+            if (regioes.size() < ids.size()) {
+                List<Long> orfaos = new ArrayList<>(ids);
+                orfaos.removeAll(proximasExecucoes.keySet());
+                jobAtualizacaoRepository.deleteAllById(orfaos);
+            }
+        }
+    }
+
+    // O próximo horário parte da última atualização bem-sucedida: quanto mais antigos os dados,
+    // mais cedo a região vence. Após uma execução que caiu no valor padrão (dados ainda antigos),
+    // a nova tentativa respeita o intervalo mínimo para não insistir em um provedor fora do ar.
+    private LocalDateTime calcularVencimento(Regiao regiao, boolean chuvaEmAlta, boolean aposExecucao) {
+        Duration intervalo = intervaloPara(regiao.getNivelRisco());
+        if (chuvaEmAlta) {
+            intervalo = intervalo.dividedBy(2);
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime minimo = agora.plusMinutes(intervaloCriticoMinutos);
+        LocalDateTime ultimaAtualizacao = regiao.getUltimaAtualizacao();
+        if (ultimaAtualizacao == null) {
+            return aposExecucao ? minimo : agora;
+        }
+
+        LocalDateTime vencimento = ultimaAtualizacao.plus(intervalo);
+        return aposExecucao && vencimento.isBefore(minimo) ? minimo : vencimento;
+    }
+
+    private Duration intervaloPara(NivelRisco nivelRisco) {
+        if (nivelRisco == null) {
+            return Duration.ofMinutes(intervaloBaixoMinutos);
+        }
+        return switch (nivelRisco) {
+            case CRITICO -> Duration.ofMinutes(intervaloCriticoMinutos);
+            case ALTO -> Duration.ofMinutes(intervaloAltoMinutos);
+            case MODERADO -> Duration.ofMinutes(intervaloModeradoMinutos);
+            case BAIXO -> Duration.ofMinutes(intervaloBaixoMinutos);
+        };
+    }
+
+    private boolean emAlta(Double anterior, Double atual) {
+        if (anterior == null || atual == null) {
+            return false;
+        }
+        return atual > anterior * FATOR_TENDENCIA_ALTA && atual > 0;
+    }
+}
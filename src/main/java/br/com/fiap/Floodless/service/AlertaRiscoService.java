@@ -0,0 +1,356 @@
+package br.com.fiap.Floodless.service;
+
+import br.com.fiap.Floodless.model.MudancaNivelRisco;
+import br.com.fiap.Floodless.model.entities.AlertaPendente;
+import br.com.fiap.Floodless.model.entities.Notificacao;
+import br.com.fiap.Floodless.model.entities.Regiao;
+import br.com.fiap.Floodless.model.enums.TipoNotificacao;
+import br.com.fiap.Floodless.repositories.AlertaPendenteRepository;
+import br.com.fiap.Floodless.repositories.RegiaoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Transforma mudanças de nível de risco em notificações. O evento só é enfileirado depois do commit
+// da atualização (ou na hora, fora de transação), então a notificação nunca atrasa nem desfaz a
+// atualização. As ordens de evacuação têm fila e consumidor próprios, sem limite, e não esperam atrás
+// das demais mudanças. As outras notificações vão para partições por região, cada uma processada
+// por um único consumidor, o que preserva a ordem das mudanças da região; com a partição cheia, a
+// notificação é gerada na thread do chamador. Nenhum alerta é descartado: lotes que falham são
+// repetidos e, persistindo a falha, vão para TB_FLOODLESS_ALERTA_PENDENTE, reprocessada
+// periodicamente (e na subida) por qualquer instância. Os consumidores rodam no alertaRiscoExecutor
+// (ExecutorConfig); o encerramento os para antes do executor e guarda o que não foi processado.
+@Service
+public class AlertaRiscoService {
+    private static final Logger logger = LoggerFactory.getLogger(AlertaRiscoService.class);
+
+    private static final long INTERVALO_VERIFICACAO_MS = 200;
+    private static final long ESPERA_INTERRUPCAO_MS = 2000;
+    private static final int TAMANHO_MAXIMO_ERRO = 500;
+
+    @Autowired
+    private NotificacaoService notificacaoService;
+
+    @Autowired
+    private RegiaoRepository regiaoRepository;
+
+    @Autowired
+    private AlertaPendenteRepository alertaPendenteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("alertaRiscoExecutor")
+    private ThreadPoolTaskExecutor alertaRiscoExecutor;
+
+    @Value("${floodless.alertas.particoes:4}")
+    private int quantidadeParticoes;
+
+    @Value("${floodless.alertas.tamanho-lote:100}")
+    private int tamanhoLote;
+
+    @Value("${floodless.alertas.capacidade-fila:10000}")
+    private int capacidadeFila;
+
+    // Espera por espaço na partição antes de gerar a notificação na thread do chamador
+    @Value("${floodless.alertas.espera-fila-cheia-ms:1000}")
+    private long esperaFilaCheiaMs;
+
+    @Value("${floodless.alertas.tentativas:3}")
+    private int tentativas;
+
+    @Value("${floodless.alertas.espera-retentativa-ms:500}")
+    private long esperaRetentativaMs;
+
+    // Tempo para esvaziar as filas ao encerrar; o que sobrar vai para a tabela de pendentes
+    @Value("${floodless.alertas.timeout-encerramento-ms:10000}")
+    private long timeoutEncerramentoMs;
+
+    private BlockingQueue<Alerta> filaEvacuacao;
+    private List<BlockingQueue<Alerta>> particoes;
+    private List<Future<?>> consumidores;
+    private CountDownLatch consumidoresAtivos;
+    // Transação própria: no fallback síncrono o chamador ainda está na fase AFTER_COMMIT da
+    // transação que publicou o evento, que não aceita novas gravações
+    private TransactionTemplate transacao;
+    private volatile boolean ativo = true;
+
+    // Notificação a gerar para uma mudança: a de evacuação ou a de mudança de nível
+    private record Alerta(MudancaNivelRisco evento, TipoNotificacao tipo) {
+        boolean isEvacuacao() {
+            return tipo == TipoNotificacao.EVACUACAO;
+        }
+
+        static Alerta de(AlertaPendente pendente) {
+            return new Alerta(new MudancaNivelRisco(pendente.getRegiaoId(), pendente.getNivelAnterior(),
+                    pendente.getNivelAtual(), pendente.getDataMudanca()), pendente.getTipo());
+        }
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        transacao = new TransactionTemplate(transactionManager);
+        transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        consumidores = new ArrayList<>(quantidadeParticoes + 1);
+        consumidoresAtivos = new CountDownLatch(quantidadeParticoes + 1);
+
+        filaEvacuacao = new LinkedBlockingQueue<>();
+        iniciarConsumidor(filaEvacuacao);
+
+        particoes = new ArrayList<>(quantidadeParticoes);
+        for (int i = 0; i < quantidadeParticoes; i++) {
+            BlockingQueue<Alerta> fila = new LinkedBlockingQueue<>(capacidadeFila);
+            particoes.add(fila);
+            iniciarConsumidor(fila);
+        }
+    }
+
+    private void iniciarConsumidor(BlockingQueue<Alerta> fila) {
+        consumidores.add(alertaRiscoExecutor.submit(() -> {
+            try {
+                consumir(fila);
+            } finally {
+                consumidoresAtivos.countDown();
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        ativo = false;
+        try {
+            if (!consumidoresAtivos.await(timeoutEncerramentoMs, TimeUnit.MILLISECONDS)) {
+                // Quem não terminou a tempo é interrompido e grava o lote em andamento como pendente
+                consumidores.forEach(consumidor -> consumidor.cancel(true));
+                consumidoresAtivos.await(ESPERA_INTERRUPCAO_MS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Alerta> restantes = new ArrayList<>();
+        filaEvacuacao.drainTo(restantes);
+        particoes.forEach(fila -> fila.drainTo(restantes));
+        if (!restantes.isEmpty()) {
+            guardarPendentes(restantes, "Instância encerrada antes do processamento");
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoMudarNivelRisco(MudancaNivelRisco evento) {
+        Alerta mudanca = new Alerta(evento, TipoNotificacao.MUDANCA_NIVEL_RISCO);
+        if (!ativo) {
+            List<Alerta> alertas = evento.isEvacuacao()
+                    ? List.of(new Alerta(evento, TipoNotificacao.EVACUACAO), mudanca)
+                    : List.of(mudanca);
+            guardarPendentes(alertas, "Instância em encerramento");
+            return;
+        }
+
+        if (evento.isEvacuacao()) {
+            filaEvacuacao.add(new Alerta(evento, TipoNotificacao.EVACUACAO));
+        }
+
+        BlockingQueue<Alerta> fila = particoes.get(Math.floorMod(evento.regiaoId().hashCode(), particoes.size()));
+        boolean enfileirado;
+        try {
+            enfileirado = fila.offer(mudanca, esperaFilaCheiaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            enfileirado = false;
+        }
+        if (!enfileirado) {
+            logger.warn("Fila de alertas cheia, notificação da região {} ({} -> {}) gerada na thread do chamador",
+                    evento.regiaoId(), evento.nivelAnterior(), evento.nivelAtual());
+            processar(List.of(mudanca));
+        }
+    }
+
+    private void consumir(BlockingQueue<Alerta> fila) {
+        List<Alerta> lote = new ArrayList<>(tamanhoLote);
+        while (ativo || !fila.isEmpty()) {
+            try {
+                Alerta primeiro = fila.poll(INTERVALO_VERIFICACAO_MS, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                fila.drainTo(lote, tamanhoLote - 1);
+                processar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lote.clear();
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    // Repete o lote com espera crescente; se continuar falhando, processa os alertas um a um para
+    // isolar o que falha e grava só esses como pendentes
+    private void processar(List<Alerta> lote) {
+        Exception erro = null;
+        for (int tentativa = 1; tentativa <= tentativas; tentativa++) {
+            try {
+                transacao.executeWithoutResult(status -> processarLote(lote));
+                return;
+            } catch (Exception e) {
+                erro = e;
+                logger.warn("Erro ao gerar notificações de {} alertas (tentativa {}/{}): {} - {}",
+                        lote.size(), tentativa, tentativas, e.getClass().getSimpleName(), e.getMessage());
+                if (tentativa < tentativas && !aguardar(esperaRetentativaMs * tentativa)) {
+                    break;
+                }
+            }
+        }
+
+        List<Alerta> falhas = lote;
+        if (lote.size() > 1 && !Thread.currentThread().isInterrupted()) {
+            falhas = new ArrayList<>();
+            for (Alerta alerta : lote) {
+                try {
+                    transacao.executeWithoutResult(status -> processarLote(List.of(alerta)));
+                } catch (Exception e) {
+                    erro = e;
+                    falhas.add(alerta);
+                }
+            }
+        }
+        if (!falhas.isEmpty()) {
+            guardarPendentes(falhas, erro == null ? "Processamento interrompido" : resumir(erro));
+        }
+    }
+
+    private void processarLote(List<Alerta> lote) {
+        Map<Long, Regiao> regioes = regiaoRepository.findAllById(lote.stream().map(alerta -> alerta.evento().regiaoId()).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Regiao::getId, Function.identity()));
+
+        List<Notificacao> evacuacoes = new ArrayList<>();
+        List<Notificacao> mudancas = new ArrayList<>(lote.size());
+        for (Alerta alerta : lote) {
+            MudancaNivelRisco evento = alerta.evento();
+            Regiao regiao = regioes.get(evento.regiaoId());
+            if (regiao == null) {
+                // Região excluída depois da atualização
+                continue;
+            }
+            if (alerta.isEvacuacao()) {
+                evacuacoes.add(notificacaoService.montarNotificacaoEvacuacao(regiao));
+            } else {
+                mudancas.add(notificacaoService.montarNotificacaoMudancaRisco(regiao, evento.nivelAnterior(), evento.nivelAtual()));
+            }
+        }
+
+        List<Notificacao> notificacoes = new ArrayList<>(evacuacoes.size() + mudancas.size());
+        notificacoes.addAll(evacuacoes);
+        notificacoes.addAll(mudancas);
+        if (!notificacoes.isEmpty()) {
+            notificacaoService.salvarEmLote(notificacoes);
+            logger.info("{} notificações de risco geradas ({} de evacuação) a partir de {} alertas",
+                    notificacoes.size(), evacuacoes.size(), lote.size());
+        }
+    }
+
+    // Reprocessa os alertas pendentes em lotes; cada lote trava suas linhas (SKIP LOCKED), grava as
+    // notificações e apaga as linhas na mesma transação
+    @Scheduled(fixedDelayString = "${floodless.alertas.intervalo-pendentes-ms:60000}")
+    public void reprocessarPendentes() {
+        while (ativo) {
+            List<Long> ids = new ArrayList<>();
+            try {
+                Integer processados = transacao.execute(status -> {
+                    List<AlertaPendente> pendentes = alertaPendenteRepository.reservar(tamanhoLote);
+                    if (pendentes.isEmpty()) {
+                        return 0;
+                    }
+                    pendentes.forEach(pendente -> ids.add(pendente.getId()));
+                    processarLote(pendentes.stream().map(Alerta::de).toList());
+                    alertaPendenteRepository.deleteAllByIdInBatch(ids);
+                    return pendentes.size();
+                });
+                if (processados == null || processados == 0) {
+                    return;
+                }
+                logger.info("{} alertas pendentes reprocessados", processados);
+                if (processados < tamanhoLote) {
+                    return;
+                }
+            } catch (Exception e) {
+                logger.warn("Erro ao reprocessar {} alertas pendentes: {} - {}",
+                        ids.size(), e.getClass().getSimpleName(), e.getMessage());
+                if (!ids.isEmpty()) {
+                    try {
+                        alertaPendenteRepository.registrarFalha(ids, resumir(e));
+                    } catch (Exception falha) {
+                        logger.warn("Erro ao registrar a falha dos alertas pendentes: {}", falha.getMessage());
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    private void guardarPendentes(List<Alerta> alertas, String erro) {
+        // A gravação não pode ser abortada pela interrupção que a motivou
+        boolean interrompida = Thread.interrupted();
+        try {
+            transacao.executeWithoutResult(status -> alertaPendenteRepository.saveAll(alertas.stream()
+                    .map(alerta -> new AlertaPendente(alerta.evento().regiaoId(), alerta.evento().nivelAnterior(),
+                            alerta.evento().nivelAtual(), alerta.evento().dataMudanca(), alerta.tipo(), erro))
+                    .toList()));
+            logger.warn("{} alertas gravados como pendentes para reprocessamento: {}", alertas.size(), erro);
+        } catch (Exception e) {
+            logger.error("Erro ao gravar {} alertas pendentes: {} - {}", alertas.size(), e.getClass().getSimpleName(), e.getMessage());
+            for (Alerta alerta : alertas) {
+                logger.error("Alerta perdido: {} da região {} ({} -> {}) em {}", alerta.tipo(), alerta.evento().regiaoId(),
+                        alerta.evento().nivelAnterior(), alerta.evento().nivelAtual(), alerta.evento().dataMudanca());
+            }
+        } finally {
+            if (interrompida) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private boolean aguardar(long ms) {
+        try {
+            Thread.sleep(ms);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String resumir(Exception e) {
+        String erro = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return erro.length() > TAMANHO_MAXIMO_ERRO ? erro.substring(0, TAMANHO_MAXIMO_ERRO) : erro;
+    }
+}
@@ -1,40 +1,137 @@
 package br.com.fiap.Floodless.service;
 
+import br.com.fiap.Floodless.model.CelulaGrade;
 import br.com.fiap.Floodless.model.Coordenadas;
+import br.com.fiap.Floodless.model.PrevisaoOpenMeteo;
+import br.com.fiap.Floodless.model.entities.Geocodificacao;
+import br.com.fiap.Floodless.model.entities.ObservacaoClimatica;
 import br.com.fiap.Floodless.model.entities.Regiao;
 import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.repositories.GeocodificacaoRepository;
+import br.com.fiap.Floodless.risco.LoteRisco;
+import br.com.fiap.Floodless.risco.MotorRisco;
+import br.com.fiap.Floodless.util.ChamadasCompartilhadas;
+import br.com.fiap.Floodless.util.CircuitBreaker;
+import br.com.fiap.Floodless.util.LimitadorTaxa;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.google.common.util.concurrent.RateLimiter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
 
+import java.io.IOException;
+import java.text.Normalizer;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 public class ClimaService {
     private static final Logger logger = LoggerFactory.getLogger(ClimaService.class);
-    private static final int MAX_FALHAS_CONSECUTIVAS = 3;
-    private static final Duration CIRCUIT_BREAKER_RESET = Duration.ofMinutes(15);
-    private int falhasConsecutivas = 0;
-    private LocalDateTime ultimaFalha;
+    private static final Duration TIMEOUT_REQUISICAO = Duration.ofSeconds(60);
+    private static final int PRIORIDADE_INTERATIVA = 10;
+    // forecast_hours começa na hora atual: as 24 primeiras horas são as "próximas 24h" do cálculo de risco
+    // e as seguintes permitem projetar o risco (PrevisaoRiscoService)
+    private static final String PARAMETROS_PREVISAO = "current=temperature_2m,precipitation,rain,showers,weathercode" +
+            "&hourly=precipitation_probability,precipitation&forecast_hours=48&timeformat=unixtime";
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    // Cache limitado com despejo W-TinyLFU (Caffeine); cada entrada expira junto com a validade da coordenada
+    private Cache<String, Coordenadas> coordenadasCache;
+    private Cache<CelulaGrade, PrevisaoOpenMeteo> previsoesCache;
+    private final ChamadasCompartilhadas<String, Coordenadas> geocodificacoesEmAndamento = new ChamadasCompartilhadas<>();
+    private final ChamadasCompartilhadas<String, List<PrevisaoOpenMeteo>> previsoesEmAndamento = new ChamadasCompartilhadas<>();
+    private CircuitBreaker circuitoNominatim;
+    private CircuitBreaker circuitoOpenMeteo;
+    private LimitadorTaxa limitadorNominatim;
+    private LimitadorTaxa limitadorOpenMeteo;
+
+    // Espaçamento mínimo entre chamadas a cada provedor, conforme a política de uso de cada um:
+    // Nominatim permite 1 req/s e o Open-Meteo gratuito 600 req/min
+    @Value("${floodless.nominatim.intervalo-ms:1000}")
+    private long intervaloNominatimMs;
+
+    @Value("${floodless.open-meteo.intervalo-ms:100}")
+    private long intervaloOpenMeteoMs;
+
+    // Pedidos acima da taxa aguardam em fila limitada até o prazo, em vez de cair no valor padrão
+    @Value("${floodless.limitador.capacidade-fila:500}")
+    private int capacidadeFilaLimitador;
+
+    @Value("${floodless.limitador.prazo-interativo-segundos:30}")
+    private long prazoInterativoSegundos;
+
+    @Value("${floodless.limitador.prazo-atualizacao-segundos:600}")
+    private long prazoAtualizacaoSegundos;
+
+    // Cada provedor tem seu próprio circuito: uma falha no Nominatim não bloqueia o Open-Meteo
+    // para regiões que já têm coordenadas. Depois da espera, uma chamada de sonda testa o provedor.
+    @Value("${floodless.circuit-breaker.limite-falhas:3}")
+    private int limiteFalhasCircuito;
+
+    @Value("${floodless.circuit-breaker.espera-segundos:30}")
+    private long esperaCircuitoSegundos;
+
+    @Value("${floodless.geocodificacao.cache.tamanho-maximo:10000}")
+    private long tamanhoMaximoCacheCoordenadas;
+
+    // A resolução dos modelos do Open-Meteo é bem maior que a distância entre bairros vizinhos,
+    // então regiões na mesma célula (0,05° ≈ 5 km) reaproveitam a mesma previsão
+    @Value("${floodless.open-meteo.celula-graus:0.05}")
+    private double tamanhoCelulaGraus;
+
+    // Os dados "current" do Open-Meteo são recalculados a cada 15 minutos
+    @Value("${floodless.open-meteo.cache.ttl-minutos:15}")
+    private long ttlPrevisaoMinutos;
+
+    // Uma entrada por célula de grade, independente do cache de geocodificação
+    @Value("${floodless.open-meteo.cache.tamanho-maximo:5000}")
+    private long tamanhoMaximoCachePrevisoes;
 
-    private final Map<String, Coordenadas> coordenadasCache = new ConcurrentHashMap<>();
-    private final RateLimiter rateLimiter = RateLimiter.create(0.5); // Uma requisição a cada 2 segundos
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private GeocodificacaoRepository geocodificacaoRepository;
+
+    @Autowired
+    private ObservacaoClimaticaService observacaoClimaticaService;
 
-    // Constantes para classificação de risco baseadas em critérios técnicos
-    // Até 25mm/h - Chuva fraca a moderada
-    private static final double LIMIAR_MODERADO = 45.0;  // 25-45mm/h - Chuva forte
-    private static final double LIMIAR_ALTO = 65.0;      // 45-65mm/h - Chuva muito forte
-    private static final double LIMIAR_CRITICO = 65.0;   // >65mm/h - Chuva extrema
+    @Autowired
+    private PrevisaoRiscoService previsaoRiscoService;
+
+    @Autowired
+    private LimiarRiscoService limiarRiscoService;
 
     @Autowired
     private WebClient nominatimWebClient;
@@ -42,66 +139,125 @@ public class ClimaService {
     @Autowired
     private WebClient openMeteoWebClient;
 
-    private synchronized void registrarFalha() {
-        falhasConsecutivas++;
-        ultimaFalha = LocalDateTime.now();
-        if (falhasConsecutivas >= MAX_FALHAS_CONSECUTIVAS) {
-            logger.error("ALERTA: {} falhas consecutivas detectadas. Circuit breaker ativado.", MAX_FALHAS_CONSECUTIVAS);
-        }
+    @PostConstruct
+    void inicializar() {
+        Duration esperaCircuito = Duration.ofSeconds(esperaCircuitoSegundos);
+        circuitoNominatim = new CircuitBreaker("Nominatim", limiteFalhasCircuito, esperaCircuito);
+        circuitoOpenMeteo = new CircuitBreaker("Open-Meteo", limiteFalhasCircuito, esperaCircuito);
+        limitadorNominatim = new LimitadorTaxa("Nominatim", Duration.ofMillis(intervaloNominatimMs),
+                capacidadeFilaLimitador, meterRegistry);
+        limitadorOpenMeteo = new LimitadorTaxa("Open-Meteo", Duration.ofMillis(intervaloOpenMeteoMs),
+                capacidadeFilaLimitador, meterRegistry);
+
+        coordenadasCache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCacheCoordenadas)
+                .expireAfter(new Expiry<String, Coordenadas>() {
+                    @Override
+                    public long expireAfterCreate(String chave, Coordenadas coords, long currentTime) {
+                        return Math.max(0, Duration.between(LocalDateTime.now(), coords.validoAte()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String chave, Coordenadas coords, long currentTime, long currentDuration) {
+                        return expireAfterCreate(chave, coords, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String chave, Coordenadas coords, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        // Publica cache.gets (hit/miss), cache.evictions e cache.size em /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, coordenadasCache, "geocodificacao");
+
+        previsoesCache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCachePrevisoes)
+                .expireAfterWrite(Duration.ofMinutes(ttlPrevisaoMinutos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, previsoesCache, "previsao");
     }
 
-    private synchronized void resetarFalhas() {
-        falhasConsecutivas = 0;
-        ultimaFalha = null;
+    @PreDestroy
+    void encerrar() {
+        limitadorNominatim.encerrar();
+        limitadorOpenMeteo.encerrar();
     }
 
-    private synchronized boolean deveUsarFallback() {
-        if (falhasConsecutivas >= MAX_FALHAS_CONSECUTIVAS) {
-            if (ultimaFalha != null && ultimaFalha.plus(CIRCUIT_BREAKER_RESET).isBefore(LocalDateTime.now())) {
-                resetarFalhas();
-                return false;
-            }
-            return true;
-        }
-        return false;
+    public List<CircuitBreaker.Situacao> getSituacaoCircuitBreakers() {
+        return List.of(circuitoNominatim.getSituacao(), circuitoOpenMeteo.getSituacao());
     }
 
-    private Optional<Coordenadas> getCoordenadas(String endereco) {
-        Coordenadas coords = coordenadasCache.get(endereco);
+    private Optional<Coordenadas> getCoordenadas(String chave) {
+        Coordenadas coords = coordenadasCache.getIfPresent(chave);
         if (coords != null && coords.isValido()) {
-            logger.info("Usando coordenadas em cache para: {}", endereco);
+            logger.info("Usando coordenadas em cache para: {}", chave);
             return Optional.of(coords);
         }
         return Optional.empty();
     }
 
-    public void atualizarDadosClimaticos(Regiao regiao) {
-        if (deveUsarFallback()) {
-            logger.warn("Circuit breaker ativo. Usando valores padrão para {}", regiao.getNome());
-            definirDadosPadrao(regiao);
-            return;
-        }
+    // Chamadas feitas pela API passam na frente da atualização automática nas filas dos limitadores
+    // Retorna false quando os provedores falharam e a região ficou com os valores padrão
+    public boolean atualizarDadosClimaticos(Regiao regiao) {
+        Prioridade prioridade = new Prioridade(PRIORIDADE_INTERATIVA, Duration.ofSeconds(prazoInterativoSegundos));
+        return Boolean.TRUE.equals(atualizarDadosClimaticosReativo(regiao, prioridade).block());
+    }
 
-        if (!rateLimiter.tryAcquire()) {
-            logger.warn("Rate limit atingido. Usando dados em cache ou padrão para {}", regiao.getNome());
-            definirDadosPadrao(regiao);
-            return;
+    // Emite true quando a região recebeu dados reais e false quando foram aplicados os valores padrão
+    private Mono<Boolean> atualizarDadosClimaticosReativo(Regiao regiao, Prioridade prioridade) {
+        return buscarCoordenadas(regiao, prioridade)
+                .flatMap(coords -> buscarDadosMeteorologicos(regiao, coords, prioridade))
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    definirDadosPadrao(regiao);
+                    return false;
+                }))
+                .onErrorResume(e -> {
+                    logger.error("Erro ao atualizar dados climáticos: {} - {}", e.getClass().getSimpleName(), e.getMessage());
+                    definirDadosPadrao(regiao);
+                    return Mono.just(false);
+                });
+    }
+
+    private Mono<Coordenadas> buscarCoordenadas(Regiao regiao, Prioridade prioridade) {
+        String endereco = montarEndereco(regiao);
+        String chave = chaveEndereco(regiao);
+
+        // Tenta usar coordenadas em cache
+        Optional<Coordenadas> coordenadasCached = getCoordenadas(chave);
+        if (coordenadasCached.isPresent()) {
+            return Mono.just(coordenadasCached.get());
         }
 
-        try {
-            String endereco = String.format("%s, %s, %s", regiao.getBairro(), regiao.getCidade(), regiao.getEstado());
-            
-            // Tenta usar coordenadas em cache
-            Optional<Coordenadas> coordenadasCached = getCoordenadas(endereco);
-            if (coordenadasCached.isPresent()) {
-                Coordenadas coords = coordenadasCached.get();
-                buscarDadosMeteorologicosSincrono(regiao, coords.lat(), coords.lon());
-                return;
-            }
+        // Outra instância pode já ter geocodificado o endereço; chamadas simultâneas para
+        // o mesmo endereço compartilham uma única busca
+        return geocodificacoesEmAndamento.executar(chave, () -> buscarCoordenadasPersistidas(chave)
+                .switchIfEmpty(Mono.defer(() -> geocodificar(endereco, chave, prioridade))));
+    }
 
-            logger.info("Buscando coordenadas para endereço: {}", endereco);
+    private Mono<Coordenadas> buscarCoordenadasPersistidas(String chave) {
+        return Mono.fromCallable(() -> geocodificacaoRepository.findById(chave)
+                        .map(Geocodificacao::toCoordenadas)
+                        .filter(Coordenadas::isValido)
+                        .orElse(null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(coords -> {
+                    logger.info("Usando coordenadas persistidas para: {}", chave);
+                    coordenadasCache.put(chave, coords);
+                })
+                .onErrorResume(e -> {
+                    logger.warn("Erro ao consultar coordenadas persistidas: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
 
-            JsonNode locationData = nominatimWebClient.get()
+    private Mono<Coordenadas> geocodificar(String endereco, String chave, Prioridade prioridade) {
+        Mono<JsonNode> requisicao = Mono.defer(() -> {
+            logger.info("Buscando coordenadas para endereço: {}", endereco);
+            return nominatimWebClient.get()
                     .uri(uriBuilder -> uriBuilder
                             .path("/search")
                             .queryParam("q", endereco)
@@ -110,58 +266,210 @@ public class ClimaService {
                             .build())
                     .retrieve()
                     .bodyToMono(JsonNode.class)
-                    .retryWhen(Retry.backoff(3, Duration.ofSeconds(10))
-                            .maxBackoff(Duration.ofSeconds(30))
-                            .filter(throwable -> shouldRetry(throwable)))
-                    .block(Duration.ofSeconds(60));
-
-            if (locationData != null && locationData.isArray() && locationData.size() > 0) {
-                JsonNode location = locationData.get(0);
-                double lat = location.get("lat").asDouble();
-                double lon = location.get("lon").asDouble();
-                
-                // Salva no cache
-                coordenadasCache.put(endereco, Coordenadas.of(lat, lon));
-                
-                logger.info("Coordenadas encontradas: lat={}, lon={}", lat, lon);
-                buscarDadosMeteorologicosSincrono(regiao, lat, lon);
-                resetarFalhas();
-            } else {
-                logger.warn("Não foi possível encontrar coordenadas para o endereço: {}", endereco);
-                registrarFalha();
-                definirDadosPadrao(regiao);
-            }
+                    .timeout(TIMEOUT_REQUISICAO);
+        });
+
+        return chamarProvedor(limitadorNominatim, circuitoNominatim, prioridade, requisicao)
+                .flatMap(locationData -> {
+                    if (locationData.isArray() && locationData.size() > 0) {
+                        JsonNode location = locationData.get(0);
+                        double lat = location.get("lat").asDouble();
+                        double lon = location.get("lon").asDouble();
+
+                        // Salva no cache e no banco para sobreviver a reinícios
+                        Coordenadas coords = Coordenadas.of(lat, lon);
+                        coordenadasCache.put(chave, coords);
+
+                        logger.info("Coordenadas encontradas: lat={}, lon={}", lat, lon);
+                        return persistirCoordenadas(chave, coords);
+                    }
+                    logger.warn("Não foi possível encontrar coordenadas para o endereço: {}", endereco);
+                    return Mono.empty();
+                });
+    }
+
+    // Atualiza um grupo de regiões com uma única chamada ao Open-Meteo, que aceita listas de
+    // coordenadas separadas por vírgula. Emite a quantidade de regiões que receberam dados reais.
+    public Mono<Integer> atualizarDadosClimaticosEmLote(List<Regiao> regioes) {
+        // Na fila dos limitadores, o grupo vale pela região de maior risco
+        int nivel = regioes.stream()
+                .map(Regiao::getNivelRisco)
+                .filter(Objects::nonNull)
+                .mapToInt(NivelRisco::ordinal)
+                .max()
+                .orElse(0);
+        Prioridade prioridade = new Prioridade(nivel, Duration.ofSeconds(prazoAtualizacaoSegundos));
+
+        return Flux.fromIterable(regioes)
+                .flatMapSequential(regiao -> buscarCoordenadas(regiao, prioridade)
+                        .map(coords -> new RegiaoLocalizada(regiao, coords))
+                        .switchIfEmpty(Mono.fromRunnable(() -> definirDadosPadrao(regiao)))
+                        .onErrorResume(e -> {
+                            logger.error("Erro ao buscar coordenadas de {}: {} - {}",
+                                    regiao.getNome(), e.getClass().getSimpleName(), e.getMessage());
+                            definirDadosPadrao(regiao);
+                            return Mono.empty();
+                        }))
+                .collectList()
+                .flatMap(localizadas -> localizadas.isEmpty()
+                        ? Mono.just(0)
+                        : buscarDadosMeteorologicosLote(localizadas, prioridade));
+    }
+
+    private Mono<Integer> buscarDadosMeteorologicosLote(List<RegiaoLocalizada> localizadas, Prioridade prioridade) {
+        Map<RegiaoLocalizada, CelulaGrade> celulas = new LinkedHashMap<>();
+        localizadas.forEach(l -> celulas.put(l, celulaDe(l.coordenadas())));
+
+        // O processamento grava o histórico via JDBC: sai da thread do cliente HTTP
+        return buscarPrevisoesPorCelula(new LinkedHashSet<>(celulas.values()), prioridade)
+                .publishOn(Schedulers.boundedElastic())
+                .map(previsoes -> {
+                    List<Regiao> regioes = new ArrayList<>(localizadas.size());
+                    List<PrevisaoOpenMeteo> previsoesRegioes = new ArrayList<>(localizadas.size());
+                    for (RegiaoLocalizada localizada : localizadas) {
+                        regioes.add(localizada.regiao());
+                        previsoesRegioes.add(previsoes.get(celulas.get(localizada)));
+                    }
+                    return processarDadosMeteorologicos(regioes, previsoesRegioes);
+                })
+                .onErrorResume(e -> {
+                    logger.error("Erro ao buscar dados meteorológicos em lote: {}", e.getMessage());
+                    localizadas.forEach(l -> definirDadosPadrao(l.regiao()));
+                    return Mono.just(0);
+                });
+    }
+
+    private Mono<Coordenadas> persistirCoordenadas(String chave, Coordenadas coords) {
+        return Mono.fromRunnable(() -> geocodificacaoRepository.save(new Geocodificacao(chave, coords)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    logger.warn("Erro ao persistir coordenadas de {}: {}", chave, e.getMessage());
+                    return Mono.empty();
+                })
+                .thenReturn(coords);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarCoordenadasPersistidas() {
+        try {
+            List<Geocodificacao> validas = geocodificacaoRepository.findByUltimaAtualizacaoAfter(LocalDateTime.now().minusDays(7));
+            validas.forEach(g -> coordenadasCache.put(normalizarEndereco(g.getEndereco()), g.toCoordenadas()));
+            logger.info("{} coordenadas carregadas do banco", validas.size());
         } catch (Exception e) {
-            logger.error("Erro ao atualizar dados climáticos: {} - {}", e.getClass().getSimpleName(), e.getMessage());
-            registrarFalha();
-            definirDadosPadrao(regiao);
+            logger.error("Erro ao carregar coordenadas persistidas: {}", e.getMessage());
         }
     }
 
-    private void buscarDadosMeteorologicosSincrono(Regiao regiao, double lat, double lon) {
-        String openMeteoUrl = String.format("/v1/forecast?latitude=%s&longitude=%s&current=temperature_2m,precipitation,rain,showers,weathercode&hourly=precipitation_probability,precipitation&forecast_days=1", lat, lon);
-        logger.info("URL Open-Meteo: {}", openMeteoUrl);
+    private Mono<Boolean> buscarDadosMeteorologicos(Regiao regiao, Coordenadas coords, Prioridade prioridade) {
+        CelulaGrade celula = celulaDe(coords);
+        return buscarPrevisoesPorCelula(Set.of(celula), prioridade)
+                .mapNotNull(previsoes -> previsoes.get(celula))
+                .publishOn(Schedulers.boundedElastic())
+                .map(weatherData -> processarDadosMeteorologicos(regiao, weatherData))
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    logger.warn("Não foi possível obter dados meteorológicos");
+                    definirDadosPadrao(regiao);
+                    return false;
+                }))
+                .onErrorResume(e -> {
+                    logger.error("Erro ao buscar dados meteorológicos: {}", e.getMessage());
+                    definirDadosPadrao(regiao);
+                    return Mono.just(false);
+                });
+    }
 
-        try {
-            JsonNode weatherData = openMeteoWebClient.get()
-                    .uri(openMeteoUrl)
-                    .retrieve()
-                    .bodyToMono(JsonNode.class)
-                    .retryWhen(Retry.backoff(3, Duration.ofSeconds(10))
-                            .maxBackoff(Duration.ofSeconds(30))
-                            .filter(throwable -> shouldRetry(throwable)))
-                    .block(Duration.ofSeconds(60));
+    private CelulaGrade celulaDe(Coordenadas coords) {
+        return CelulaGrade.de(coords.lat(), coords.lon(), tamanhoCelulaGraus);
+    }
 
-            if (weatherData != null) {
-                processarDadosMeteorologicos(regiao, weatherData);
+    // Devolve a previsão de cada célula, consultando o Open-Meteo em uma única requisição
+    // apenas para as células que não estão no cache
+    private Mono<Map<CelulaGrade, PrevisaoOpenMeteo>> buscarPrevisoesPorCelula(Set<CelulaGrade> celulas, Prioridade prioridade) {
+        Map<CelulaGrade, PrevisaoOpenMeteo> resultado = new HashMap<>();
+        List<CelulaGrade> pendentes = new ArrayList<>();
+        for (CelulaGrade celula : celulas) {
+            PrevisaoOpenMeteo previsao = previsoesCache.getIfPresent(celula);
+            if (previsao != null) {
+                resultado.put(celula, previsao);
             } else {
-                logger.warn("Não foi possível obter dados meteorológicos");
-                definirDadosPadrao(regiao);
+                pendentes.add(celula);
             }
-        } catch (Exception e) {
-            logger.error("Erro ao buscar dados meteorológicos: {}", e.getMessage());
-            definirDadosPadrao(regiao);
         }
+
+        if (pendentes.isEmpty()) {
+            return Mono.just(resultado);
+        }
+
+        String latitudes = pendentes.stream().map(CelulaGrade::latCentro).collect(Collectors.joining(","));
+        String longitudes = pendentes.stream().map(CelulaGrade::lonCentro).collect(Collectors.joining(","));
+
+        return requisitarPrevisao(latitudes, longitudes, prioridade)
+                .map(previsoes -> {
+                    // Com mais de uma coordenada a resposta vem na mesma ordem da requisição
+                    for (int i = 0; i < pendentes.size() && i < previsoes.size(); i++) {
+                        previsoesCache.put(pendentes.get(i), previsoes.get(i));
+                        resultado.put(pendentes.get(i), previsoes.get(i));
+                    }
+                    return resultado;
+                })
+                .defaultIfEmpty(resultado);
+    }
+
+    private Mono<List<PrevisaoOpenMeteo>> requisitarPrevisao(String latitudes, String longitudes, Prioridade prioridade) {
+        // Regiões com as mesmas coordenadas consultadas ao mesmo tempo recebem a mesma resposta
+        return previsoesEmAndamento.executar(latitudes + ";" + longitudes,
+                () -> requisitarPrevisaoOpenMeteo(latitudes, longitudes, prioridade));
+    }
+
+    private Mono<List<PrevisaoOpenMeteo>> requisitarPrevisaoOpenMeteo(String latitudes, String longitudes, Prioridade prioridade) {
+        String openMeteoUrl = String.format("/v1/forecast?latitude=%s&longitude=%s&%s", latitudes, longitudes, PARAMETROS_PREVISAO);
+
+        Mono<byte[]> requisicao = Mono.defer(() -> {
+            logger.info("URL Open-Meteo: {}", openMeteoUrl);
+            return openMeteoWebClient.get()
+                    .uri(openMeteoUrl)
+                    .retrieve()
+                    .bodyToMono(byte[].class)
+                    .timeout(TIMEOUT_REQUISICAO);
+        });
+
+        return chamarProvedor(limitadorOpenMeteo, circuitoOpenMeteo, prioridade, requisicao)
+                .handle((corpo, sink) -> {
+                    try {
+                        sink.next(OpenMeteoParser.lerPrevisoes(corpo));
+                    } catch (IOException e) {
+                        sink.error(e);
+                    }
+                });
+    }
+
+    // Cada tentativa (inclusive os retries) aguarda a vez no limitador e só então passa pelo circuito:
+    // recusas do limitador (fila cheia, prazo vencido) não contam como falha do provedor, e um pedido
+    // que ficou na fila enquanto o circuito abriu é recusado ao sair dela, sem chegar ao provedor.
+    private <T> Mono<T> chamarProvedor(LimitadorTaxa limitador, CircuitBreaker circuito, Prioridade prioridade, Mono<T> requisicao) {
+        return limitador.adquirir(prioridade.nivel(), prioridade.prazo())
+                .then(circuito.proteger(requisicao))
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(10))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .filter(throwable -> shouldRetry(throwable)));
+    }
+
+    private String montarEndereco(Regiao regiao) {
+        return String.format("%s, %s, %s", regiao.getBairro(), regiao.getCidade(), regiao.getEstado());
+    }
+
+    // Chave usada no cache e na tabela de geocodificação
+    public String chaveEndereco(Regiao regiao) {
+        return normalizarEndereco(montarEndereco(regiao));
+    }
+
+    // "Vila  Mariana, São Paulo, SP" e "vila mariana, sao paulo, sp" geram a mesma chave
+    static String normalizarEndereco(String endereco) {
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(endereco, Normalizer.Form.NFD)).replaceAll("");
+        return Arrays.stream(semAcentos.split(","))
+                .map(parte -> ESPACOS.matcher(parte.trim()).replaceAll(" "))
+                .collect(Collectors.joining(", "))
+                .toLowerCase(Locale.ROOT);
     }
 
     private void definirDadosPadrao(Regiao regiao) {
@@ -180,101 +488,76 @@ public class ClimaService {
         regiao.setUltimaAtualizacao(LocalDateTime.now());
     }
 
-    private void processarDadosMeteorologicos(Regiao regiao, JsonNode weatherData) {
-        try {
-            JsonNode current = weatherData.get("current");
-            JsonNode hourly = weatherData.get("hourly");
+    private boolean processarDadosMeteorologicos(Regiao regiao, PrevisaoOpenMeteo previsao) {
+        return processarDadosMeteorologicos(List.of(regiao), Collections.singletonList(previsao)) == 1;
+    }
 
-            double temperatura = current.get("temperature_2m").asDouble();
-            double chuvaAtual = current.get("precipitation").asDouble();
-            double rain = current.get("rain").asDouble();
-            double showers = current.get("showers").asDouble();
-            int weatherCode = current.get("weathercode").asInt();
+    // Monta o lote com as previsões completas, classifica todas as regiões em uma passada do
+    // MotorRisco e aplica o resultado. Retorna quantas regiões receberam dados reais.
+    private int processarDadosMeteorologicos(List<Regiao> regioes, List<PrevisaoOpenMeteo> previsoes) {
+        LoteRisco lote = new LoteRisco(regioes.size());
+        int[] posicoes = new int[regioes.size()];
+        int tamanho = 0;
+
+        for (int i = 0; i < regioes.size(); i++) {
+            Regiao regiao = regioes.get(i);
+            PrevisaoOpenMeteo previsao = previsoes.get(i);
+            if (previsao == null) {
+                logger.warn("Resposta do Open-Meteo sem dados para a região: {}", regiao.getNome());
+                definirDadosPadrao(regiao);
+                continue;
+            }
+            if (!previsao.isCompleta()) {
+                logger.error("Erro ao processar dados meteorológicos de {}: Resposta do Open-Meteo incompleta", regiao.getNome());
+                definirDadosPadrao(regiao);
+                continue;
+            }
 
             // Calcular média de probabilidade de precipitação para as próximas 24h
             double probMediaChuva = 0;
             double precipitacaoTotal = 0;
-            JsonNode probArray = hourly.get("precipitation_probability");
-            JsonNode precipArray = hourly.get("precipitation");
+            double[] probArray = previsao.probabilidadeHoraria();
+            double[] precipArray = previsao.precipitacaoHoraria();
 
-            for (int i = 0; i < 24 && i < probArray.size(); i++) {
-                probMediaChuva += probArray.get(i).asDouble();
-                precipitacaoTotal += precipArray.get(i).asDouble();
+            for (int h = 0; h < 24 && h < probArray.length && h < precipArray.length; h++) {
+                probMediaChuva += probArray[h];
+                precipitacaoTotal += precipArray[h];
             }
             probMediaChuva /= 24;
 
-            double nivelChuvaCalculado = calcularNivelChuva(
-                    chuvaAtual,
-                    rain,
-                    showers,
-                    weatherCode,
-                    probMediaChuva,
-                    precipitacaoTotal
-            );
-
-            regiao.setTemperatura(temperatura);
-            regiao.setNivelChuva(nivelChuvaCalculado);
-            regiao.setUltimaAtualizacao(LocalDateTime.now());
-
-            atualizarNivelRisco(regiao);
-            
-            logger.info("Dados meteorológicos atualizados com sucesso para {}: temp={}, nivelChuva={}, risco={}",
-                    regiao.getNome(), temperatura, nivelChuvaCalculado, regiao.getNivelRisco());
-        } catch (Exception e) {
-            logger.error("Erro ao processar dados meteorológicos: {} - {}", e.getClass().getSimpleName(), e.getMessage());
-            definirDadosPadrao(regiao);
-        }
-    }
-
-    private double calcularNivelChuva(
-            double chuvaAtual,
-            double rain,
-            double showers,
-            int weatherCode,
-            double probMediaChuva,
-            double precipitacaoTotal
-    ) {
-        // Nível base é a soma da chuva atual, chuva e pancadas de chuva
-        double nivelBase = chuvaAtual + rain + showers;
-
-        // Adicionar fator de previsão (precipitação total prevista para 24h)
-        nivelBase += (precipitacaoTotal * 0.5);
-
-        // Aumentar nível baseado na probabilidade média de chuva
-        nivelBase *= (1 + (probMediaChuva / 100.0));
-
-        // Ajustar baseado no código do tempo
-        double multiplicadorCodigo = 1.0;
-        if (weatherCode >= 95) { // Tempestade forte
-            multiplicadorCodigo = 2.0;
-        } else if (weatherCode >= 80) { // Chuva forte
-            multiplicadorCodigo = 1.5;
-        } else if (weatherCode >= 60) { // Chuva moderada
-            multiplicadorCodigo = 1.2;
+            lote.definir(tamanho, previsao.precipitacao(), previsao.chuva(), previsao.pancadas(),
+                    previsao.codigoTempo(), probMediaChuva, precipitacaoTotal);
+            lote.definirLimiares(tamanho, limiarRiscoService.para(regiao));
+            posicoes[tamanho++] = i;
         }
-        nivelBase *= multiplicadorCodigo;
-
-        return nivelBase;
-    }
 
-    private void atualizarNivelRisco(Regiao regiao) {
-        if (regiao.getNivelChuva() != null) {
-            double nivelChuva = regiao.getNivelChuva();
-
-            if (nivelChuva > LIMIAR_CRITICO) {
-                regiao.setNivelRisco(NivelRisco.CRITICO);
-                regiao.setAreaRisco(true);
-            } else if (nivelChuva > LIMIAR_ALTO) {
-                regiao.setNivelRisco(NivelRisco.ALTO);
-                regiao.setAreaRisco(true);
-            } else if (nivelChuva > LIMIAR_MODERADO) {
-                regiao.setNivelRisco(NivelRisco.MODERADO);
-                regiao.setAreaRisco(false);
-            } else {
-                regiao.setNivelRisco(NivelRisco.BAIXO);
-                regiao.setAreaRisco(false);
+        lote.setTamanho(tamanho);
+        MotorRisco.classificar(lote, limiarRiscoService.padrao());
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<ObservacaoClimatica> observacoes = new ArrayList<>(tamanho);
+        for (int j = 0; j < tamanho; j++) {
+            Regiao regiao = regioes.get(posicoes[j]);
+            PrevisaoOpenMeteo previsao = previsoes.get(posicoes[j]);
+            NivelRisco nivelRisco = lote.nivelRisco(j);
+
+            regiao.setTemperatura(previsao.temperatura());
+            regiao.setNivelChuva(lote.nivelChuva(j));
+            regiao.setNivelRisco(nivelRisco);
+            regiao.setAreaRisco(MotorRisco.areaRisco(nivelRisco));
+            regiao.setUltimaAtualizacao(agora);
+
+            ObservacaoClimatica observacao = observacaoClimaticaService.montar(regiao, previsao);
+            if (observacao != null) {
+                observacoes.add(observacao);
+                previsaoRiscoService.calcular(regiao, previsao, observacao.getDataObservacao());
             }
+
+            logger.info("Dados meteorológicos atualizados com sucesso para {}: temp={}, nivelChuva={}, risco={}",
+                    regiao.getNome(), previsao.temperatura(), lote.nivelChuva(j), nivelRisco);
         }
+        observacaoClimaticaService.registrar(observacoes);
+        return tamanho;
     }
 
     private boolean shouldRetry(Throwable throwable) {
@@ -289,4 +572,8 @@ public class ClimaService {
                throwable instanceof io.netty.channel.ConnectTimeoutException ||
                throwable instanceof java.io.IOException;
     }
+
+    private record Prioridade(int nivel, Duration prazo) {}
+
+    private record RegiaoLocalizada(Regiao regiao, Coordenadas coordenadas) {}
 } 
\ No newline at end of file
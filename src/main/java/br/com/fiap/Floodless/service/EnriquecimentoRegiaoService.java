@@ -0,0 +1,197 @@
+package br.com.fiap.Floodless.service;
+
+import br.com.fiap.Floodless.dto.StatusEnriquecimentoDTO;
+import br.com.fiap.Floodless.model.MudancaNivelRisco;
+import br.com.fiap.Floodless.model.entities.Regiao;
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.model.enums.StatusEnriquecimento;
+import br.com.fiap.Floodless.repositories.RegiaoRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Busca os dados climáticos de regiões criadas ou alteradas em modo assíncrono. A região é salva
+// com status PENDENTE e o enriquecimento só começa depois do commit, em um executor próprio, para
+// que a requisição não fique presa às APIs externas.
+@Service
+public class EnriquecimentoRegiaoService {
+    private static final Logger logger = LoggerFactory.getLogger(EnriquecimentoRegiaoService.class);
+
+    public record EnriquecimentoSolicitado(Long regiaoId) {}
+
+    // Clientes acompanhando o status de cada região via SSE
+    private final Map<Long, List<SseEmitter>> inscritos = new ConcurrentHashMap<>();
+
+    @Autowired
+    private RegiaoRepository regiaoRepository;
+
+    @Autowired
+    private ClimaService climaService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    @Qualifier("enriquecimentoExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    @Value("${floodless.enriquecimento.timeout-sse-segundos:120}")
+    private long timeoutSseSegundos;
+
+    // Tempo que a região fica reservada para esta instância; se ela cair, outra retoma depois disso
+    @Value("${floodless.enriquecimento.lease-minutos:10}")
+    private long leaseMinutos;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoSolicitarEnriquecimento(EnriquecimentoSolicitado evento) {
+        submeter(evento.regiaoId());
+    }
+
+    // Regiões que ficaram pendentes quando a aplicação parou. Regiões em processamento por outra
+    // instância ativa ficam de fora (lease válido); se mais de uma instância submeter a mesma
+    // região, só a que conseguir a reserva em enriquecer() consulta as APIs.
+    @EventListener(ApplicationReadyEvent.class)
+    public void retomarPendentes() {
+        List<Long> pendentes = regiaoRepository.findIdsEnriquecimentoPendente(LocalDateTime.now());
+        if (!pendentes.isEmpty()) {
+            logger.info("Retomando enriquecimento de {} regiões pendentes", pendentes.size());
+            pendentes.forEach(this::submeter);
+        }
+    }
+
+    public StatusEnriquecimentoDTO buscarStatus(Long regiaoId) {
+        return regiaoRepository.findById(regiaoId)
+                .map(StatusEnriquecimentoDTO::new)
+                .orElseThrow(() -> new EntityNotFoundException("Região não encontrada"));
+    }
+
+    public SseEmitter inscrever(Long regiaoId) {
+        if (!regiaoRepository.existsById(regiaoId)) {
+            throw new EntityNotFoundException("Região não encontrada");
+        }
+
+        SseEmitter emitter = new SseEmitter(Duration.ofSeconds(timeoutSseSegundos).toMillis());
+        // Inclusão e remoção dentro do compute, atômicas com o remove do status final: uma inscrição
+        // nunca cai em uma lista já retirada do mapa, e a lista vazia sai do mapa
+        inscritos.compute(regiaoId, (k, emitters) -> {
+            List<SseEmitter> lista = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            lista.add(emitter);
+            return lista;
+        });
+        Runnable remover = () -> inscritos.computeIfPresent(regiaoId, (k, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+        emitter.onCompletion(remover);
+        emitter.onTimeout(remover);
+        emitter.onError(e -> remover.run());
+
+        // O status é lido depois da inscrição: se o enriquecimento terminar no meio, o cliente recebe
+        // o resultado por aqui ou pela notificação, nunca fica sem ele
+        StatusEnriquecimentoDTO atual = buscarStatus(regiaoId);
+        enviar(emitter, atual);
+        if (atual.finalizado()) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private void submeter(Long regiaoId) {
+        try {
+            executor.execute(() -> enriquecer(regiaoId));
+        } catch (TaskRejectedException e) {
+            // Fila cheia: a região fica com os dados atuais e será atualizada pelo agendador
+            logger.warn("Fila de enriquecimento cheia, região {} não será enriquecida agora", regiaoId);
+            alterarStatus(regiaoId, StatusEnriquecimento.FALHOU);
+        }
+    }
+
+    private void enriquecer(Long regiaoId) {
+        Regiao regiao = regiaoRepository.findById(regiaoId).orElse(null);
+        if (regiao == null) {
+            List<SseEmitter> emitters = inscritos.remove(regiaoId);
+            if (emitters != null) {
+                emitters.forEach(SseEmitter::complete);
+            }
+            return;
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        if (regiaoRepository.reservarEnriquecimento(regiaoId, agora, agora.plusMinutes(leaseMinutos)) == 0) {
+            logger.debug("Região {} já enriquecida ou reservada por outra instância", regiaoId);
+            return;
+        }
+        regiao.setStatusEnriquecimento(StatusEnriquecimento.PROCESSANDO);
+        notificar(new StatusEnriquecimentoDTO(regiao));
+
+        try {
+            NivelRisco nivelAnterior = regiao.getNivelRisco();
+            boolean dadosReais = climaService.atualizarDadosClimaticos(regiao);
+            regiao.setStatusEnriquecimento(dadosReais ? StatusEnriquecimento.CONCLUIDO : StatusEnriquecimento.FALHOU);
+            regiaoRepository.atualizarDadosClimaticos(regiaoId, regiao.getTemperatura(), regiao.getNivelChuva(),
+                    regiao.getNivelRisco(), regiao.getAreaRisco(), regiao.getUltimaAtualizacao(),
+                    regiao.getStatusEnriquecimento());
+            if (MudancaNivelRisco.houveMudanca(nivelAnterior, regiao.getNivelRisco())) {
+                eventPublisher.publishEvent(new MudancaNivelRisco(regiaoId, nivelAnterior, regiao.getNivelRisco(), LocalDateTime.now()));
+            }
+            notificar(new StatusEnriquecimentoDTO(regiao));
+            logger.info("Enriquecimento da região {} finalizado: {}", regiaoId, regiao.getStatusEnriquecimento());
+        } catch (Exception e) {
+            logger.error("Erro ao enriquecer região {}: {} - {}", regiaoId, e.getClass().getSimpleName(), e.getMessage());
+            alterarStatus(regiaoId, StatusEnriquecimento.FALHOU);
+        }
+    }
+
+    private void alterarStatus(Long regiaoId, StatusEnriquecimento status) {
+        try {
+            regiaoRepository.atualizarStatusEnriquecimento(regiaoId, status);
+            regiaoRepository.findById(regiaoId).ifPresent(r -> notificar(new StatusEnriquecimentoDTO(r)));
+        } catch (Exception e) {
+            logger.error("Erro ao alterar status da região {}: {} - {}", regiaoId, e.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    private void notificar(StatusEnriquecimentoDTO status) {
+        List<SseEmitter> emitters = status.finalizado()
+                ? inscritos.remove(status.regiaoId())
+                : inscritos.get(status.regiaoId());
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            enviar(emitter, status);
+            if (status.finalizado()) {
+                emitter.complete();
+            }
+        }
+    }
+
+    private void enviar(SseEmitter emitter, StatusEnriquecimentoDTO status) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(status));
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package br.com.fiap.Floodless.service;
+
+import br.com.fiap.Floodless.dto.PerfilLimiarRequestDTO;
+import br.com.fiap.Floodless.dto.PerfilLimiarResponseDTO;
+import br.com.fiap.Floodless.dto.ReclassificacaoDTO;
+import br.com.fiap.Floodless.model.MudancaNivelRisco;
+import br.com.fiap.Floodless.model.entities.PerfilLimiar;
+import br.com.fiap.Floodless.model.entities.Regiao;
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.repositories.PerfilLimiarRepository;
+import br.com.fiap.Floodless.repositories.RegiaoRepository;
+import br.com.fiap.Floodless.repositories.RegiaoRepositoryCustom.ClassificacaoRegiao;
+import br.com.fiap.Floodless.risco.MotorRisco;
+import br.com.fiap.Floodless.risco.MotorRisco.Limiares;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Mantém os perfis de limiares compilados em uma tabela imutável em memória. A tabela é trocada
+// inteira (AtomicReference) quando um perfil muda, então a classificação nunca vê um estado
+// intermediário e não consulta o banco. Outras instâncias recebem a mudança na recarga periódica.
+// A gravação de um perfil é uma transação própria; a reclassificação roda depois do commit e uma
+// falha nela volta na resposta (erroReclassificacao), sem desfazer o perfil gravado.
+@Service
+public class LimiarRiscoService {
+    private static final Logger logger = LoggerFactory.getLogger(LimiarRiscoService.class);
+
+    private record TabelaLimiares(Map<Long, Limiares> porRegiao, Map<String, Limiares> porCidade, Limiares padrao) {}
+
+    private final AtomicReference<TabelaLimiares> tabela =
+            new AtomicReference<>(new TabelaLimiares(Map.of(), Map.of(), Limiares.PADRAO));
+
+    @Autowired
+    private PerfilLimiarRepository perfilLimiarRepository;
+
+    @Autowired
+    private RegiaoRepository regiaoRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+
+    @Value("${floodless.limiares.padrao.moderado:25.0}")
+    private double limiarModeradoPadrao;
+
+    @Value("${floodless.limiares.padrao.alto:45.0}")
+    private double limiarAltoPadrao;
+
+    @Value("${floodless.limiares.padrao.critico:65.0}")
+    private double limiarCriticoPadrao;
+
+    @PostConstruct
+    public void inicializar() {
+        transacao = new TransactionTemplate(transactionManager);
+        tabela.set(new TabelaLimiares(Map.of(), Map.of(),
+                new Limiares(limiarModeradoPadrao, limiarAltoPadrao, limiarCriticoPadrao)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarPerfis() {
+        recarregar();
+    }
+
+    @Scheduled(fixedDelayString = "${floodless.limiares.intervalo-recarga-ms:60000}",
+               initialDelayString = "${floodless.limiares.intervalo-recarga-ms:60000}")
+    public void recarregar() {
+        try {
+            carregarTabela();
+        } catch (Exception e) {
+            // Falha de acesso ao banco: a tabela anterior continua valendo
+            logger.error("Erro ao carregar perfis de limiares: {} - {}", e.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    // Um perfil inválido (gravado por fora da API) é ignorado sozinho; os demais continuam valendo
+    private void carregarTabela() {
+        Map<Long, Limiares> porRegiao = new HashMap<>();
+        Map<String, Limiares> porCidade = new HashMap<>();
+        int ignorados = 0;
+        for (PerfilLimiar perfil : perfilLimiarRepository.findAll()) {
+            Limiares limiares;
+            try {
+                limiares = new Limiares(perfil.getLimiarModerado(), perfil.getLimiarAlto(), perfil.getLimiarCritico());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                logger.warn("Perfil de limiares {} ignorado: {}", perfil.getId(), e.getMessage());
+                ignorados++;
+                continue;
+            }
+            if (perfil.getRegiaoId() != null) {
+                porRegiao.put(perfil.getRegiaoId(), limiares);
+            } else if (perfil.getCidade() != null && perfil.getEstado() != null) {
+                porCidade.put(chaveCidade(perfil.getCidade(), perfil.getEstado()), limiares);
+            }
+        }
+        Limiares padrao = tabela.get().padrao();
+        tabela.set(new TabelaLimiares(Map.copyOf(porRegiao), Map.copyOf(porCidade), padrao));
+        logger.debug("Perfis de limiares carregados: {} por região, {} por cidade, {} ignorados",
+                porRegiao.size(), porCidade.size(), ignorados);
+    }
+
+    public Limiares padrao() {
+        return tabela.get().padrao();
+    }
+
+    public Limiares para(Regiao regiao) {
+        return para(regiao.getId(), regiao.getCidade(), regiao.getEstado());
+    }
+
+    public Limiares para(Long regiaoId, String cidade, String estado) {
+        TabelaLimiares atual = tabela.get();
+        if (regiaoId != null) {
+            Limiares limiares = atual.porRegiao().get(regiaoId);
+            if (limiares != null) {
+                return limiares;
+            }
+        }
+        if (cidade != null && estado != null && !atual.porCidade().isEmpty()) {
+            Limiares limiares = atual.porCidade().get(chaveCidade(cidade, estado));
+            if (limiares != null) {
+                return limiares;
+            }
+        }
+        return atual.padrao();
+    }
+
+    public List<PerfilLimiarResponseDTO> listar() {
+        return perfilLimiarRepository.findAll().stream()
+                .map(PerfilLimiarResponseDTO::new)
+                .toList();
+    }
+
+    public PerfilLimiarResponseDTO buscarPorId(Long id) {
+        return perfilLimiarRepository.findById(id)
+                .map(PerfilLimiarResponseDTO::new)
+                .orElseThrow(() -> new EntityNotFoundException("Perfil de limiares não encontrado"));
+    }
+
+    public PerfilLimiarResponseDTO criar(PerfilLimiarRequestDTO dto) {
+        PerfilLimiar perfil = transacao.execute(status -> {
+            PerfilLimiar novo = new PerfilLimiar();
+            preencher(novo, dto);
+            return perfilLimiarRepository.save(novo);
+        });
+        return aplicarMudanca(perfil);
+    }
+
+    public PerfilLimiarResponseDTO atualizar(Long id, PerfilLimiarRequestDTO dto) {
+        PerfilLimiar perfil = transacao.execute(status -> {
+            PerfilLimiar existente = perfilLimiarRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Perfil de limiares não encontrado"));
+            preencher(existente, dto);
+            return perfilLimiarRepository.save(existente);
+        });
+        return aplicarMudanca(perfil);
+    }
+
+    public PerfilLimiarResponseDTO deletar(Long id) {
+        PerfilLimiar perfil = transacao.execute(status -> {
+            PerfilLimiar existente = perfilLimiarRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Perfil de limiares não encontrado"));
+            perfilLimiarRepository.delete(existente);
+            return existente;
+        });
+        return aplicarMudanca(perfil);
+    }
+
+    // Reclassifica todas as regiões com o nível de chuva já calculado: uma consulta para ler,
+    // classificação em memória e um único lote JDBC com as regiões que mudaram de nível
+    public ReclassificacaoDTO reclassificarTodas() {
+        long inicio = System.nanoTime();
+        List<ClassificacaoRegiao> regioes = regiaoRepository.listarClassificacoes();
+
+        Map<Long, NivelRisco> alteradas = new HashMap<>();
+        List<MudancaNivelRisco> mudancas = new ArrayList<>();
+        LocalDateTime agora = LocalDateTime.now();
+        for (ClassificacaoRegiao regiao : regioes) {
+            if (regiao.nivelChuva() == null) {
+                continue;
+            }
+            NivelRisco nivelRisco = MotorRisco.classificar(regiao.nivelChuva(),
+                    para(regiao.id(), regiao.cidade(), regiao.estado()));
+            if (nivelRisco != regiao.nivelRisco()) {
+                alteradas.put(regiao.id(), nivelRisco);
+                if (MudancaNivelRisco.houveMudanca(regiao.nivelRisco(), nivelRisco)) {
+                    mudancas.add(new MudancaNivelRisco(regiao.id(), regiao.nivelRisco(), nivelRisco, agora));
+                }
+            }
+        }
+        if (!alteradas.isEmpty()) {
+            regiaoRepository.atualizarNiveisRiscoEmLote(alteradas);
+            mudancas.forEach(eventPublisher::publishEvent);
+        }
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        logger.info("Reclassificação concluída em {}ms: {} regiões avaliadas, {} alteradas",
+                duracaoMs, regioes.size(), alteradas.size());
+        return new ReclassificacaoDTO(regioes.size(), alteradas.size(), duracaoMs);
+    }
+
+    // Roda depois do commit do perfil: a falha é devolvida na resposta em vez de virar erro da requisição
+    private PerfilLimiarResponseDTO aplicarMudanca(PerfilLimiar perfil) {
+        try {
+            carregarTabela();
+            return new PerfilLimiarResponseDTO(perfil, reclassificarTodas(), null);
+        } catch (Exception e) {
+            logger.error("Perfil de limiares {} gravado, mas a reclassificação falhou: {} - {}",
+                    perfil.getId(), e.getClass().getSimpleName(), e.getMessage());
+            return new PerfilLimiarResponseDTO(perfil, null,
+                    "Perfil gravado, mas a reclassificação falhou: " + e.getMessage()
+                            + ". Repita com POST /api/perfis-limiar/reclassificar");
+        }
+    }
+
+    private void preencher(PerfilLimiar perfil, PerfilLimiarRequestDTO dto) {
+        boolean porRegiao = dto.regiaoId() != null;
+        boolean porCidade = dto.cidade() != null && !dto.cidade().isBlank() && dto.estado() != null;
+        if (porRegiao == porCidade) {
+            throw new IllegalArgumentException("Informe a região ou a cidade e o estado do perfil");
+        }
+        // Valida a ordem dos limiares
+        new Limiares(dto.limiarModerado(), dto.limiarAlto(), dto.limiarCritico());
+
+        if (porRegiao) {
+            if (!regiaoRepository.existsById(dto.regiaoId())) {
+                throw new EntityNotFoundException("Região não encontrada");
+            }
+            boolean duplicado = perfil.getId() == null
+                    ? perfilLimiarRepository.existsByRegiaoId(dto.regiaoId())
+                    : perfilLimiarRepository.existsByRegiaoIdAndIdNot(dto.regiaoId(), perfil.getId());
+            if (duplicado) {
+                throw new IllegalArgumentException("A região já possui um perfil de limiares");
+            }
+        } else {
+            String chave = chaveCidade(dto.cidade(), dto.estado());
+            boolean duplicado = perfilLimiarRepository.findAll().stream()
+                    .anyMatch(p -> p.getRegiaoId() == null
+                            && !p.getId().equals(perfil.getId())
+                            && chave.equals(chaveCidade(p.getCidade(), p.getEstado())));
+            if (duplicado) {
+                throw new IllegalArgumentException("A cidade já possui um perfil de limiares");
+            }
+        }
+
+        perfil.setDescricao(dto.descricao());
+        perfil.setRegiaoId(porRegiao ? dto.regiaoId() : null);
+        perfil.setCidade(porRegiao ? null : dto.cidade());
+        perfil.setEstado(porRegiao ? null : dto.estado());
+        perfil.setLimiarModerado(dto.limiarModerado());
+        perfil.setLimiarAlto(dto.limiarAlto());
+        perfil.setLimiarCritico(dto.limiarCritico());
+    }
+
+    private static String chaveCidade(String cidade, String estado) {
+        return ClimaService.normalizarEndereco(cidade) + "|" + ClimaService.normalizarEndereco(estado);
+    }
+}
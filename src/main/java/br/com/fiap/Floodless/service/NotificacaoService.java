@@ -1,22 +1,36 @@
 package br.com.fiap.Floodless.service;
 
+import br.com.fiap.Floodless.dto.ContagemNaoLidasDTO;
+import br.com.fiap.Floodless.dto.EnvioNotificacaoDTO;
+import br.com.fiap.Floodless.dto.NotificacaoResponseDTO;
+import br.com.fiap.Floodless.dto.PaginaNotificacoesDTO;
 import br.com.fiap.Floodless.model.entities.Notificacao;
 import br.com.fiap.Floodless.model.entities.Regiao;
 import br.com.fiap.Floodless.model.entities.Usuario;
 import br.com.fiap.Floodless.model.enums.NivelRisco;
 import br.com.fiap.Floodless.model.enums.TipoNotificacao;
+import br.com.fiap.Floodless.repositories.LeituraNotificacaoRepository;
 import br.com.fiap.Floodless.repositories.NotificacaoRepository;
+import br.com.fiap.Floodless.repositories.NotificacaoRepositoryCustom.FiltroNotificacao;
+import br.com.fiap.Floodless.repositories.NotificacaoRepositoryCustom.FluxosCaixaEntrada;
 import br.com.fiap.Floodless.repositories.RegiaoRepository;
 import br.com.fiap.Floodless.repositories.UsuarioRepository;
+import br.com.fiap.Floodless.util.CursorNotificacao;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class NotificacaoService {
@@ -31,24 +45,118 @@ public class NotificacaoService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private LeituraNotificacaoRepository leituraNotificacaoRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${floodless.notificacoes.pagina.tamanho-padrao:20}")
+    private int tamanhoPaginaPadrao;
+
+    @Value("${floodless.notificacoes.pagina.tamanho-maximo:100}")
+    private int tamanhoPaginaMaximo;
+
     @Transactional(readOnly = true)
-    public List<Notificacao> buscarTodas() {
-        return notificacaoRepository.findAllByOrderByUrgenteDescDataCriacaoDesc();
+    public PaginaNotificacoesDTO buscarTodas(String cursor, Integer tamanho) {
+        return buscarPagina(new FiltroNotificacao(null, null, null), cursor, tamanho);
     }
 
     @Transactional(readOnly = true)
-    public List<Notificacao> buscarPorRegiao(Long regiaoId) {
-        return notificacaoRepository.findByRegiaoIdOrderByDataCriacaoDesc(regiaoId);
+    public PaginaNotificacoesDTO buscarPorRegiao(Long regiaoId, String cursor, Integer tamanho) {
+        return buscarPagina(new FiltroNotificacao(regiaoId, null, null), cursor, tamanho);
     }
 
     @Transactional(readOnly = true)
-    public List<Notificacao> buscarPorUsuario(Long usuarioId) {
-        return notificacaoRepository.findByUsuarioIdOrderByDataCriacaoDesc(usuarioId);
+    public PaginaNotificacoesDTO buscarPorUsuario(Long usuarioId, String cursor, Integer tamanho) {
+        return buscarPagina(new FiltroNotificacao(null, usuarioId, null), cursor, tamanho);
     }
 
     @Transactional(readOnly = true)
-    public List<Notificacao> buscarNaoLidas() {
-        return notificacaoRepository.findByLidaFalseOrderByUrgenteDescDataCriacaoDesc();
+    public PaginaNotificacoesDTO buscarNaoLidas(String cursor, Integer tamanho) {
+        return buscarPagina(new FiltroNotificacao(null, null, false), cursor, tamanho);
+    }
+
+    // Notificações pessoais do usuário e as da sua região (sem usuário) em um único feed por data.
+    // Os dois fluxos chegam ordenados da mesma consulta e são intercalados aqui.
+    @Transactional(readOnly = true)
+    public PaginaNotificacoesDTO buscarCaixaEntrada(Long usuarioId, String cursor, Integer tamanho) {
+        Usuario usuario = usuarioRepository.findById(usuarioId)
+            .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado"));
+        int limite = limitePagina(tamanho);
+        CursorNotificacao posicao = cursor == null || cursor.isBlank() ? null : CursorNotificacao.decodificar(cursor);
+
+        FluxosCaixaEntrada fluxos = notificacaoRepository.buscarCaixaEntrada(usuarioId,
+                usuario.getRegiao() != null ? usuario.getRegiao().getId() : null,
+                posicao != null ? posicao.dataCriacao() : null, posicao != null ? posicao.id() : null, limite + 1);
+        fluxos.pessoais().forEach(n -> n.setUsuario(usuario));
+        if (!fluxos.daRegiao().isEmpty()) {
+            // Nas notificações da região, "lida" vem do bitmap de leitura do usuário
+            Set<Long> lidas = leituraNotificacaoRepository.filtrarLidas(
+                    fluxos.daRegiao().stream().map(Notificacao::getId).toList(), usuarioId);
+            fluxos.daRegiao().forEach(n -> n.setLida(lidas.contains(n.getId())));
+        }
+
+        List<Notificacao> notificacoes = intercalar(fluxos.pessoais(), fluxos.daRegiao(), limite + 1);
+        String proximoCursor = null;
+        if (notificacoes.size() > limite) {
+            notificacoes = notificacoes.subList(0, limite);
+            Notificacao ultima = notificacoes.get(limite - 1);
+            // Na caixa de entrada a ordem é só por data, então a urgência do cursor não é usada
+            proximoCursor = new CursorNotificacao(false, ultima.getDataCriacao(), ultima.getId()).codificar();
+        }
+        return new PaginaNotificacoesDTO(notificacoes.stream().map(NotificacaoResponseDTO::fromEntity).toList(), proximoCursor);
+    }
+
+    private List<Notificacao> intercalar(List<Notificacao> a, List<Notificacao> b, int limite) {
+        List<Notificacao> resultado = new ArrayList<>(Math.min(limite, a.size() + b.size()));
+        int i = 0;
+        int j = 0;
+        while (resultado.size() < limite && (i < a.size() || j < b.size())) {
+            if (j >= b.size() || (i < a.size() && maisRecente(a.get(i), b.get(j)))) {
+                resultado.add(a.get(i++));
+            } else {
+                resultado.add(b.get(j++));
+            }
+        }
+        return resultado;
+    }
+
+    private boolean maisRecente(Notificacao a, Notificacao b) {
+        int comparacao = a.getDataCriacao().compareTo(b.getDataCriacao());
+        return comparacao > 0 || (comparacao == 0 && a.getId() > b.getId());
+    }
+
+    private int limitePagina(Integer tamanho) {
+        int limite = tamanho == null ? tamanhoPaginaPadrao : tamanho;
+        if (limite < 1) {
+            throw new IllegalArgumentException("O tamanho da página deve ser maior que zero");
+        }
+        return Math.min(limite, tamanhoPaginaMaximo);
+    }
+
+    // Paginação por cursor em ordem (urgente, dataCriacao, id) decrescente: primeiro as urgentes,
+    // depois as demais. Cada grupo de urgência é lido por uma consulta própria a partir do cursor,
+    // com uma linha a mais para saber se existe próxima página.
+    private PaginaNotificacoesDTO buscarPagina(FiltroNotificacao filtro, String cursor, Integer tamanho) {
+        int limite = limitePagina(tamanho);
+        CursorNotificacao posicao = cursor == null || cursor.isBlank() ? null : CursorNotificacao.decodificar(cursor);
+        boolean urgente = posicao == null || posicao.urgente();
+
+        List<Notificacao> notificacoes = new ArrayList<>(notificacaoRepository.buscarPagina(filtro, urgente,
+                posicao != null ? posicao.dataCriacao() : null, posicao != null ? posicao.id() : null, limite + 1));
+        if (urgente && notificacoes.size() <= limite) {
+            notificacoes.addAll(notificacaoRepository.buscarPagina(filtro, false, null, null, limite + 1 - notificacoes.size()));
+        }
+
+        String proximoCursor = null;
+        if (notificacoes.size() > limite) {
+            notificacoes = notificacoes.subList(0, limite);
+            Notificacao ultima = notificacoes.get(limite - 1);
+            proximoCursor = new CursorNotificacao(Boolean.TRUE.equals(ultima.getUrgente()),
+                    ultima.getDataCriacao(), ultima.getId()).codificar();
+        }
+        return new PaginaNotificacoesDTO(notificacoes.stream().map(NotificacaoResponseDTO::fromEntity).toList(), proximoCursor);
     }
 
     @Transactional
@@ -79,34 +187,105 @@ public class NotificacaoService {
         notificacao.setLida(false);
         notificacao.setDataCriacao(LocalDateTime.now());
 
-        return notificacaoRepository.save(notificacao);
+        notificacao = notificacaoRepository.save(notificacao);
+        registrarCriadas(List.of(notificacao));
+        return notificacao;
+    }
+
+    // Envia uma cópia da notificação para cada morador da região que aceita alertas. O público é
+    // resolvido em uma única consulta (somente IDs) e as linhas são inseridas em lotes JDBC.
+    @Transactional
+    public EnvioNotificacaoDTO notificarMoradores(
+            String titulo,
+            String mensagem,
+            TipoNotificacao tipo,
+            Long regiaoId,
+            Boolean urgente
+    ) {
+        long inicio = System.nanoTime();
+        Regiao regiao = regiaoRepository.findById(regiaoId)
+            .orElseThrow(() -> new EntityNotFoundException("Região não encontrada"));
+
+        List<Long> destinatarios = usuarioRepository.findIdsByRegiaoIdAndReceberAlertasTrue(regiaoId);
+        int enviadas = 0;
+        if (!destinatarios.isEmpty()) {
+            Notificacao modelo = montarNotificacao(titulo, mensagem, tipo, regiao, urgente != null ? urgente : false);
+            long[] ids = notificacaoRepository.inserirParaUsuarios(modelo, destinatarios);
+            enviadas = ids.length;
+            usuarioRepository.incrementarNaoLidasPessoaisDaRegiao(regiaoId, true);
+
+            List<NotificacaoResponseDTO> criadas = new ArrayList<>(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                criadas.add(new NotificacaoResponseDTO(ids[i], titulo, mensagem, tipo, regiao.getId(), regiao.getNome(),
+                        regiao.getBairro(), regiao.getNivelRisco(), destinatarios.get(i), null, null,
+                        modelo.getUrgente(), false, modelo.getDataCriacao()));
+            }
+            eventPublisher.publishEvent(new TransmissaoNotificacaoService.NotificacoesCriadas(criadas));
+        }
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        logger.info("Notificação '{}' enviada para {} moradores da região {} em {}ms", titulo, enviadas, regiaoId, duracaoMs);
+        return new EnvioNotificacaoDTO(regiaoId, enviadas, duracaoMs);
     }
 
     @Transactional
     public void criarNotificacaoMudancaRisco(Regiao regiao, NivelRisco nivelAnterior) {
+        salvarEmLote(List.of(montarNotificacaoMudancaRisco(regiao, nivelAnterior, regiao.getNivelRisco())));
+    }
+
+    @Transactional
+    public void criarNotificacaoEvacuacao(Regiao regiao) {
+        salvarEmLote(List.of(montarNotificacaoEvacuacao(regiao)));
+    }
+
+    @Transactional
+    public List<Notificacao> salvarEmLote(List<Notificacao> notificacoes) {
+        List<Notificacao> salvas = notificacaoRepository.saveAll(notificacoes);
+        registrarCriadas(salvas);
+        return salvas;
+    }
+
+    // Atualiza os contadores de não lidas e publica as notificações, entregues aos clientes SSE
+    // somente após o commit (TransmissaoNotificacaoService)
+    private void registrarCriadas(List<Notificacao> notificacoes) {
+        Map<Long, Long> porUsuario = new HashMap<>();
+        Map<Long, Long> porRegiao = new HashMap<>();
+        for (Notificacao notificacao : notificacoes) {
+            if (notificacao.getUsuario() != null) {
+                porUsuario.merge(notificacao.getUsuario().getId(), 1L, Long::sum);
+            } else {
+                porRegiao.merge(notificacao.getRegiao().getId(), 1L, Long::sum);
+            }
+        }
+        porUsuario.forEach(usuarioRepository::somarNaoLidasPessoais);
+        porRegiao.forEach(regiaoRepository::somarNotificacoesRegiao);
+
+        eventPublisher.publishEvent(new TransmissaoNotificacaoService.NotificacoesCriadas(
+                notificacoes.stream().map(NotificacaoResponseDTO::fromEntity).toList()));
+    }
+
+    public Notificacao montarNotificacaoMudancaRisco(Regiao regiao, NivelRisco nivelAnterior, NivelRisco nivelAtual) {
         String titulo = String.format("Mudança no Nível de Risco - %s", regiao.getBairro());
         String mensagem = String.format(
             "O nível de risco da região %s mudou de %s para %s. %s",
             regiao.getBairro(),
             nivelAnterior,
-            regiao.getNivelRisco(),
-            regiao.getNivelRisco().ordinal() > nivelAnterior.ordinal() 
+            nivelAtual,
+            nivelAtual.ordinal() > nivelAnterior.ordinal() 
                 ? "Fique atento às orientações das autoridades."
                 : "Continue monitorando a situação."
         );
 
-        criarNotificacao(
+        return montarNotificacao(
             titulo,
             mensagem,
             TipoNotificacao.MUDANCA_NIVEL_RISCO,
-            regiao.getId(),
-            null,
-            regiao.getNivelRisco().ordinal() > nivelAnterior.ordinal()
+            regiao,
+            nivelAtual.ordinal() > nivelAnterior.ordinal()
         );
     }
 
-    @Transactional
-    public void criarNotificacaoEvacuacao(Regiao regiao) {
+    public Notificacao montarNotificacaoEvacuacao(Regiao regiao) {
         String titulo = String.format("EVACUAÇÃO NECESSÁRIA - %s", regiao.getBairro());
         String mensagem = String.format(
             "ATENÇÃO! Devido ao alto risco de enchente, a evacuação da região %s é necessária. " +
@@ -115,36 +294,143 @@ public class NotificacaoService {
             regiao.getBairro()
         );
 
-        criarNotificacao(
+        return montarNotificacao(
             titulo,
             mensagem,
             TipoNotificacao.EVACUACAO,
-            regiao.getId(),
-            null,
+            regiao,
             true
         );
     }
 
+    // Notificação da região inteira (sem usuário), ainda não persistida
+    private Notificacao montarNotificacao(String titulo, String mensagem, TipoNotificacao tipo, Regiao regiao, boolean urgente) {
+        Notificacao notificacao = new Notificacao();
+        notificacao.setTitulo(titulo);
+        notificacao.setMensagem(mensagem);
+        notificacao.setTipo(tipo);
+        notificacao.setRegiao(regiao);
+        notificacao.setUrgente(urgente);
+        notificacao.setLida(false);
+        notificacao.setDataCriacao(LocalDateTime.now());
+        return notificacao;
+    }
+
+    // Notificações da região inteira são gravadas uma única vez; a leitura de cada morador fica no
+    // bitmap de TB_FLOODLESS_LEITURA_NOTIFICACAO em vez de uma linha por morador
     @Transactional
-    public void marcarComoLida(Long id) {
+    public void marcarComoLida(Long id, Long usuarioId) {
         Notificacao notificacao = notificacaoRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Notificação não encontrada"));
-            
-        notificacao.setLida(true);
-        notificacaoRepository.save(notificacao);
+
+        if (notificacao.getUsuario() == null) {
+            if (usuarioId == null) {
+                throw new IllegalArgumentException("Informe o usuário para marcar uma notificação da região como lida");
+            }
+            // A trava vem antes do bit, na mesma ordem de marcarTodasComoLidas (usuário, depois leitura)
+            if (usuarioRepository.travarContadores(usuarioId) == null) {
+                throw new EntityNotFoundException("Usuário não encontrado");
+            }
+            if (leituraNotificacaoRepository.marcarLida(id, usuarioId)) {
+                // Só conta para o usuário se a notificação for da região em que ele está
+                usuarioRepository.somarLidasRegiao(List.of(usuarioId), notificacao.getRegiao().getId(), 1);
+            }
+            return;
+        }
+        if (usuarioId != null && !usuarioId.equals(notificacao.getUsuario().getId())) {
+            throw new IllegalArgumentException("A notificação pertence a outro usuário");
+        }
+
+        // Mesma ordem de travas de marcarTodasComoLidas: usuário, depois notificação. O estado lida é
+        // relido sob a trava pelo UPDATE condicional
+        Long destinatarioId = notificacao.getUsuario().getId();
+        usuarioRepository.travarContadores(destinatarioId);
+        if (notificacaoRepository.marcarComoLida(id) > 0) {
+            usuarioRepository.somarNaoLidasPessoais(destinatarioId, -1);
+        }
+    }
+
+    // Lido dos contadores do usuário e da região: nenhuma varredura de notificações. Contadores
+    // ainda não calculados (nulos) são recalculados por conjuntos e gravados.
+    @Transactional
+    public ContagemNaoLidasDTO contarNaoLidas(Long usuarioId) {
+        Usuario usuario = usuarioRepository.findById(usuarioId)
+            .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado"));
+        Regiao regiao = usuario.getRegiao();
+
+        Long pessoais = usuario.getNaoLidasPessoais();
+        Long lidasRegiao = usuario.getLidasRegiao();
+        Long notificacoesRegiao = regiao != null ? regiao.getNotificacoesRegiao() : null;
+        if (pessoais == null || (regiao != null && (lidasRegiao == null || notificacoesRegiao == null))) {
+            return recalcularContadores(usuario);
+        }
+
+        long daRegiao = regiao != null ? Math.max(0, notificacoesRegiao - lidasRegiao) : 0;
+        return new ContagemNaoLidasDTO(usuarioId, pessoais, daRegiao, pessoais + daRegiao);
+    }
+
+    // Contagem por conjuntos: pessoais não lidas + (notificações da região - as marcadas no bitmap).
+    // As linhas do usuário e da região ficam travadas da contagem até o commit: um incremento
+    // concorrente ou já entrou na contagem ou é aplicado depois sobre o valor gravado.
+    private ContagemNaoLidasDTO recalcularContadores(Usuario usuario) {
+        Long usuarioId = usuario.getId();
+        usuarioRepository.travarContadores(usuarioId);
+        long pessoais = notificacaoRepository.countByUsuarioIdAndLidaFalse(usuarioId);
+        Long lidasRegiao = null;
+        long daRegiao = 0;
+        if (usuario.getRegiao() != null) {
+            Long regiaoId = usuario.getRegiao().getId();
+            if (usuario.getRegiao().getNotificacoesRegiao() == null) {
+                regiaoRepository.travarContador(regiaoId);
+            }
+            long notificacoesRegiao = notificacaoRepository.countByRegiaoIdAndUsuarioIsNull(regiaoId);
+            lidasRegiao = leituraNotificacaoRepository.contarLidasDaRegiao(regiaoId, usuarioId);
+            daRegiao = Math.max(0, notificacoesRegiao - lidasRegiao);
+            if (usuario.getRegiao().getNotificacoesRegiao() == null) {
+                regiaoRepository.definirNotificacoesRegiao(regiaoId, notificacoesRegiao);
+            }
+        }
+        usuarioRepository.definirContadores(usuarioId, pessoais, lidasRegiao);
+        return new ContagemNaoLidasDTO(usuarioId, pessoais, daRegiao, pessoais + daRegiao);
     }
 
+    // Duas instruções por conjunto, sem carregar notificações: um UPDATE nas pessoais e um MERGE que
+    // liga o bit do usuário em todas as notificações da sua região. Com a linha do usuário travada,
+    // as lidas da região são contadas no bitmap: uma notificação gravada depois do MERGE fica sem o
+    // bit e continua não lida.
     @Transactional
     public void marcarTodasComoLidas(Long usuarioId) {
-        List<Notificacao> notificacoes = notificacaoRepository.findByUsuarioIdAndLidaFalse(usuarioId);
-        
-        notificacoes.forEach(n -> n.setLida(true));
-        
-        notificacaoRepository.saveAll(notificacoes);
+        Usuario usuario = usuarioRepository.findById(usuarioId)
+            .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado"));
+        usuarioRepository.travarContadores(usuarioId);
+
+        notificacaoRepository.marcarTodasComoLidas(usuarioId);
+        Long lidasRegiao = null;
+        if (usuario.getRegiao() != null) {
+            Long regiaoId = usuario.getRegiao().getId();
+            leituraNotificacaoRepository.marcarTodasDaRegiao(regiaoId, usuarioId);
+            lidasRegiao = leituraNotificacaoRepository.contarLidasDaRegiao(regiaoId, usuarioId);
+        }
+        usuarioRepository.definirContadores(usuarioId, 0L, lidasRegiao);
     }
 
     @Transactional
     public void delete(Long id) {
+        Notificacao notificacao = notificacaoRepository.findById(id).orElse(null);
+        if (notificacao != null) {
+            if (notificacao.getUsuario() == null) {
+                Long regiaoId = notificacao.getRegiao().getId();
+                regiaoRepository.somarNotificacoesRegiao(regiaoId, -1);
+                List<Long> leitores = leituraNotificacaoRepository.usuariosQueLeram(id);
+                // Limite de itens do IN no Oracle
+                for (int i = 0; i < leitores.size(); i += 1000) {
+                    usuarioRepository.somarLidasRegiao(leitores.subList(i, Math.min(i + 1000, leitores.size())), regiaoId, -1);
+                }
+            } else if (!Boolean.TRUE.equals(notificacao.getLida())) {
+                usuarioRepository.somarNaoLidasPessoais(notificacao.getUsuario().getId(), -1);
+            }
+        }
+        leituraNotificacaoRepository.deleteByNotificacaoId(id);
         notificacaoRepository.deleteById(id);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,100 @@
+package br.com.fiap.Floodless.service;
+
+import br.com.fiap.Floodless.dto.ObservacaoClimaticaDTO;
+import br.com.fiap.Floodless.model.PrevisaoOpenMeteo;
+import br.com.fiap.Floodless.model.entities.ObservacaoClimatica;
+import br.com.fiap.Floodless.model.entities.Regiao;
+import br.com.fiap.Floodless.repositories.ObservacaoClimaticaRepository;
+import br.com.fiap.Floodless.repositories.RegiaoRepository;
+import br.com.fiap.Floodless.util.SerieHoraria;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Guarda o histórico das consultas ao Open-Meteo. Cada lote de regiões atualizado por uma
+// consulta (varredura, criação síncrona e assíncrona) é gravado na hora, em um único batch JDBC.
+// A observação leva o horário da própria previsão, de modo que a mesma previsão servida pelo
+// cache ou por outra instância não gera uma segunda linha.
+@Service
+public class ObservacaoClimaticaService {
+    private static final Logger logger = LoggerFactory.getLogger(ObservacaoClimaticaService.class);
+
+    @Autowired
+    private ObservacaoClimaticaRepository observacaoClimaticaRepository;
+
+    @Autowired
+    private RegiaoRepository regiaoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Retorna null para região ainda não persistida (criação síncrona): o histórico começa na próxima atualização
+    public ObservacaoClimatica montar(Regiao regiao, PrevisaoOpenMeteo previsao) {
+        if (regiao.getId() == null) {
+            return null;
+        }
+        LocalDateTime dataObservacao = previsao.horaAtual() >= 0
+                ? LocalDateTime.ofInstant(Instant.ofEpochSecond(previsao.horaAtual()), ZoneId.systemDefault())
+                : LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        return new ObservacaoClimatica(
+                regiao.getId(),
+                dataObservacao,
+                previsao.temperatura(),
+                previsao.precipitacao(),
+                previsao.chuva(),
+                previsao.pancadas(),
+                previsao.codigoTempo(),
+                regiao.getNivelChuva(),
+                regiao.getNivelRisco(),
+                SerieHoraria.codificar(previsao.probabilidadeHoraria(), previsao.precipitacaoHoraria()));
+    }
+
+    // Falha na gravação não interrompe a atualização das regiões
+    public void registrar(List<ObservacaoClimatica> observacoes) {
+        if (observacoes.isEmpty()) {
+            return;
+        }
+        try {
+            observacaoClimaticaRepository.inserirEmLote(observacoes);
+            logger.debug("{} observações climáticas gravadas", observacoes.size());
+        } catch (Exception e) {
+            logger.error("Erro ao gravar {} observações climáticas: {} - {}",
+                    observacoes.size(), e.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    // Escreve o histórico como um array JSON à medida que as linhas chegam do banco
+    public StreamingResponseBody historico(Long regiaoId, LocalDateTime de, LocalDateTime ate) {
+        if (!regiaoRepository.existsById(regiaoId)) {
+            throw new EntityNotFoundException("Região não encontrada");
+        }
+
+        return saida -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                gerador.writeStartArray();
+                observacaoClimaticaRepository.percorrerPeriodo(regiaoId, de, ate, observacao -> {
+                    try {
+                        gerador.writeObject(new ObservacaoClimaticaDTO(observacao));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                gerador.writeEndArray();
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.fiap.Floodless.service;
+
+import br.com.fiap.Floodless.model.PrevisaoOpenMeteo;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Lê a resposta do Open-Meteo com a API de streaming do Jackson, direto para arrays primitivos,
+// sem montar a árvore de JsonNode. Aceita tanto um objeto (uma coordenada) quanto um array
+// de objetos (várias coordenadas na mesma requisição).
+public final class OpenMeteoParser {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int CAPACIDADE_INICIAL_HORARIA = 48;
+
+    private OpenMeteoParser() {}
+
+    public static List<PrevisaoOpenMeteo> lerPrevisoes(byte[] corpo) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(corpo)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                return List.of(lerPrevisao(parser));
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IOException("Resposta do Open-Meteo em formato inesperado: " + token);
+            }
+
+            List<PrevisaoOpenMeteo> previsoes = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                previsoes.add(lerPrevisao(parser));
+            }
+            return previsoes;
+        }
+    }
+
+    private static PrevisaoOpenMeteo lerPrevisao(JsonParser parser) throws IOException {
+        double temperatura = Double.NaN;
+        double precipitacao = Double.NaN;
+        double chuva = Double.NaN;
+        double pancadas = Double.NaN;
+        int codigoTempo = -1;
+        double[] probabilidadeHoraria = null;
+        double[] precipitacaoHoraria = null;
+        long inicioSerie = -1;
+        long horaAtual = -1;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String bloco = parser.currentName();
+            JsonToken valor = parser.nextToken();
+
+            if ("current".equals(bloco) && valor == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String campo = parser.currentName();
+                    parser.nextToken();
+                    switch (campo) {
+                        case "temperature_2m" -> temperatura = lerValor(parser);
+                        case "precipitation" -> precipitacao = lerValor(parser);
+                        case "rain" -> chuva = lerValor(parser);
+                        case "showers" -> pancadas = lerValor(parser);
+                        case "time" -> horaAtual = parser.currentToken() == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : -1;
+                        case "weathercode" -> codigoTempo = parser.currentToken() == JsonToken.VALUE_NULL ? -1 : parser.getValueAsInt(-1);
+                        default -> parser.skipChildren();
+                    }
+                }
+            } else if ("hourly".equals(bloco) && valor == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String campo = parser.currentName();
+                    JsonToken inicio = parser.nextToken();
+                    if ("precipitation_probability".equals(campo) && inicio == JsonToken.START_ARRAY) {
+                        probabilidadeHoraria = lerSerie(parser);
+                    } else if ("precipitation".equals(campo) && inicio == JsonToken.START_ARRAY) {
+                        precipitacaoHoraria = lerSerie(parser);
+                    } else if ("time".equals(campo) && inicio == JsonToken.START_ARRAY) {
+                        // Com timeformat=unixtime os horários vêm como epoch; só o primeiro interessa
+                        JsonToken atual = parser.nextToken();
+                        if (atual == JsonToken.VALUE_NUMBER_INT) {
+                            inicioSerie = parser.getLongValue();
+                        }
+                        while (atual != JsonToken.END_ARRAY) {
+                            atual = proximo(parser);
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return new PrevisaoOpenMeteo(temperatura, precipitacao, chuva, pancadas, codigoTempo,
+                probabilidadeHoraria, precipitacaoHoraria, inicioSerie, horaAtual);
+    }
+
+    // Valor atual nulo equivale a ausente (NaN) para que a previsão seja tratada como incompleta
+    private static double lerValor(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        parser.skipChildren();
+        return Double.NaN;
+    }
+
+    // Valores nulos na série (horas sem previsão) contam como zero
+    private static double[] lerSerie(JsonParser parser) throws IOException {
+        double[] serie = new double[CAPACIDADE_INICIAL_HORARIA];
+        int tamanho = 0;
+        while (proximo(parser) != JsonToken.END_ARRAY) {
+            if (tamanho == serie.length) {
+                serie = Arrays.copyOf(serie, tamanho * 2);
+            }
+            serie[tamanho++] = parser.getValueAsDouble();
+        }
+        return tamanho == serie.length ? serie : Arrays.copyOf(serie, tamanho);
+    }
+
+    private static JsonToken proximo(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new IOException("Resposta do Open-Meteo truncada");
+        }
+        return token;
+    }
+}
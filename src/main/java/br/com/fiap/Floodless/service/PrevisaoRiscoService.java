@@ -0,0 +1,201 @@
+package br.com.fiap.Floodless.service;
+
+import br.com.fiap.Floodless.dto.PontoPrevisaoDTO;
+import br.com.fiap.Floodless.dto.PrevisaoRiscoDTO;
+import br.com.fiap.Floodless.model.PrevisaoOpenMeteo;
+import br.com.fiap.Floodless.model.entities.ObservacaoClimatica;
+import br.com.fiap.Floodless.model.entities.Regiao;
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.repositories.ObservacaoClimaticaRepository;
+import br.com.fiap.Floodless.repositories.RegiaoRepository;
+import br.com.fiap.Floodless.risco.MotorRisco;
+import br.com.fiap.Floodless.util.SerieHoraria;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Projeta o nível de risco hora a hora a partir da série horária do Open-Meteo. Cada hora é
+// pontuada como o cálculo atual (MotorRisco.nivelChuva) sobre a janela de 24h que
+// começa nela. A projeção é calculada na atualização da região e guardada em memória junto com o
+// horário da observação que a originou; a consulta lê só a memória e vai ao banco apenas quando
+// não há projeção. Observações gravadas por outras instâncias são conferidas periodicamente e
+// descartam as projeções mais antigas que elas.
+@Service
+public class PrevisaoRiscoService {
+
+    // Mesma janela da média e do total usados em processarDadosMeteorologicos
+    private static final int HORAS_JANELA = 24;
+
+    // As horas futuras não têm código do tempo: a intensidade prevista faz o papel dele
+    // (acima de 7,6 mm/h é chuva forte pela classificação da WMO)
+    private static final double CHUVA_FORTE_MM_H = 7.6;
+    private static final int CODIGO_CHUVA = 61;
+    private static final int CODIGO_CHUVA_FORTE = 81;
+
+    private record Projecao(LocalDateTime dataObservacao, PrevisaoRiscoDTO previsao) {}
+
+    private final Map<Long, Projecao> previsoes = new ConcurrentHashMap<>();
+
+    // Horário de observação a partir do qual a próxima sincronização procura observações novas
+    private volatile LocalDateTime marcaSincronizacao = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(1);
+
+    @Autowired
+    private ObservacaoClimaticaRepository observacaoClimaticaRepository;
+
+    @Autowired
+    private RegiaoRepository regiaoRepository;
+
+    @Autowired
+    private LimiarRiscoService limiarRiscoService;
+
+    @Value("${floodless.previsao.horizonte-horas:24}")
+    private int horizonteHoras;
+
+    public void calcular(Regiao regiao, PrevisaoOpenMeteo previsao, LocalDateTime dataObservacao) {
+        if (regiao.getId() == null) {
+            return;
+        }
+        LocalDateTime inicio = previsao.inicioSerie() >= 0
+                ? LocalDateTime.ofInstant(Instant.ofEpochSecond(previsao.inicioSerie()), ZoneId.systemDefault())
+                : LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        double chuvaAtual = previsao.precipitacao() + previsao.chuva() + previsao.pancadas();
+
+        guardar(regiao.getId(), new Projecao(dataObservacao, projetar(regiao.getId(), inicio, chuvaAtual,
+                previsao.codigoTempo(), previsao.probabilidadeHoraria(), previsao.precipitacaoHoraria(),
+                limiarRiscoService.para(regiao))));
+    }
+
+    // Sem projeção em memória (reinício ou projeção descartada pela sincronização), parte da última
+    // observação gravada
+    public PrevisaoRiscoDTO buscar(Long regiaoId) {
+        Projecao atual = previsoes.get(regiaoId);
+        if (atual != null) {
+            return atual.previsao();
+        }
+
+        Regiao regiao = regiaoRepository.findById(regiaoId)
+                .orElseThrow(() -> new EntityNotFoundException("Região não encontrada"));
+        ObservacaoClimatica observacao = observacaoClimaticaRepository.findFirstByRegiaoIdOrderByDataObservacaoDesc(regiaoId)
+                .orElseThrow(() -> new EntityNotFoundException("Previsão não disponível para a região"));
+        double chuvaAtual = valor(observacao.getPrecipitacao()) + valor(observacao.getChuva()) + valor(observacao.getPancadas());
+        Projecao projecao = new Projecao(observacao.getDataObservacao(), projetar(regiaoId,
+                observacao.getDataObservacao().truncatedTo(ChronoUnit.HOURS),
+                chuvaAtual,
+                observacao.getCodigoTempo() != null ? observacao.getCodigoTempo() : 0,
+                SerieHoraria.probabilidade(observacao.getSerieHoraria()),
+                SerieHoraria.precipitacao(observacao.getSerieHoraria()),
+                limiarRiscoService.para(regiao)));
+        return guardar(regiaoId, projecao).previsao();
+    }
+
+    public void descartar(Long regiaoId) {
+        previsoes.remove(regiaoId);
+    }
+
+    // Descarta as projeções mais antigas que a última observação da região, gravada por esta ou por
+    // outra instância. A marca fica uma hora antes da observação mais recente vista: previsões vindas
+    // do cache (horário um pouco anterior) ou do mesmo horário, gravadas depois da consulta, entram
+    // na próxima.
+    @Scheduled(fixedDelayString = "${floodless.previsao.intervalo-sincronizacao-ms:60000}")
+    public void sincronizar() {
+        if (previsoes.isEmpty()) {
+            return;
+        }
+        Map<Long, LocalDateTime> ultimas = observacaoClimaticaRepository.buscarUltimasDesde(marcaSincronizacao);
+        ultimas.forEach((regiaoId, dataObservacao) -> previsoes.computeIfPresent(regiaoId,
+                (k, projecao) -> projecao.dataObservacao().isBefore(dataObservacao) ? null : projecao));
+        ultimas.values().stream().max(LocalDateTime::compareTo)
+                .map(data -> data.truncatedTo(ChronoUnit.HOURS).minusHours(1))
+                .filter(data -> data.isAfter(marcaSincronizacao))
+                .ifPresent(data -> marcaSincronizacao = data);
+    }
+
+    // Mantém a projeção da observação mais recente quando duas atualizações concorrem
+    private Projecao guardar(Long regiaoId, Projecao nova) {
+        return previsoes.merge(regiaoId, nova,
+                (existente, candidata) -> candidata.dataObservacao().isBefore(existente.dataObservacao()) ? existente : candidata);
+    }
+
+    private PrevisaoRiscoDTO projetar(Long regiaoId, LocalDateTime inicio, double chuvaAtual, int codigoTempo,
+                                      double[] probabilidade, double[] precipitacao, MotorRisco.Limiares limiares) {
+        int horas = Math.min(probabilidade.length, precipitacao.length);
+        int pontos = Math.max(1, Math.min(horizonteHoras, horas));
+
+        // Somas da janela deslizante: a cada hora sai o valor mais antigo e entra o da hora h + 24
+        double somaPrecipitacao = 0;
+        double somaProbabilidade = 0;
+        for (int i = 0; i < HORAS_JANELA && i < horas; i++) {
+            somaPrecipitacao += precipitacao[i];
+            somaProbabilidade += probabilidade[i];
+        }
+
+        List<PontoPrevisaoDTO> linhaDoTempo = new ArrayList<>(pontos);
+        NivelRisco nivelMaximo = NivelRisco.BAIXO;
+        Integer horasAteAlto = null;
+        Integer horasAteCritico = null;
+
+        for (int h = 0; h < pontos; h++) {
+            // A primeira hora usa as condições atuais, como o cálculo do nível da região; nas demais a
+            // precipitação prevista da hora faz o papel de precipitação + chuva + pancadas
+            double chuvaHora = h == 0 ? chuvaAtual : 2 * precipitacao[h];
+            int codigo = h == 0 ? codigoTempo : codigoPorIntensidade(precipitacao[h]);
+
+            double nivelChuva = MotorRisco.nivelChuva(chuvaHora, 0, 0, codigo,
+                    somaProbabilidade / HORAS_JANELA, somaPrecipitacao);
+            NivelRisco nivelRisco = MotorRisco.classificar(nivelChuva, limiares);
+            linhaDoTempo.add(new PontoPrevisaoDTO(inicio.plusHours(h), nivelChuva, nivelRisco));
+
+            if (nivelRisco.compareTo(nivelMaximo) > 0) {
+                nivelMaximo = nivelRisco;
+            }
+            if (horasAteAlto == null && nivelRisco.compareTo(NivelRisco.ALTO) >= 0) {
+                horasAteAlto = h;
+            }
+            if (horasAteCritico == null && nivelRisco == NivelRisco.CRITICO) {
+                horasAteCritico = h;
+            }
+
+            if (h < horas) {
+                somaPrecipitacao -= precipitacao[h];
+                somaProbabilidade -= probabilidade[h];
+            }
+            if (h + HORAS_JANELA < horas) {
+                somaPrecipitacao += precipitacao[h + HORAS_JANELA];
+                somaProbabilidade += probabilidade[h + HORAS_JANELA];
+            }
+        }
+
+        return new PrevisaoRiscoDTO(
+                regiaoId,
+                LocalDateTime.now(),
+                linhaDoTempo.get(0).nivelRisco(),
+                nivelMaximo,
+                horasAteAlto != null ? inicio.plusHours(horasAteAlto) : null,
+                horasAteAlto,
+                horasAteCritico != null ? inicio.plusHours(horasAteCritico) : null,
+                horasAteCritico,
+                List.copyOf(linhaDoTempo));
+    }
+
+    private static int codigoPorIntensidade(double precipitacaoHora) {
+        if (precipitacaoHora >= CHUVA_FORTE_MM_H) {
+            return CODIGO_CHUVA_FORTE;
+        }
+        return precipitacaoHora > 0 ? CODIGO_CHUVA : 0;
+    }
+
+    private static double valor(Double valor) {
+        return valor != null ? valor : 0;
+    }
+}
@@ -2,26 +2,46 @@ package br.com.fiap.Floodless.service;
 
 import br.com.fiap.Floodless.dto.RegiaoRequestDTO;
 import br.com.fiap.Floodless.dto.RegiaoResponseDTO;
+import br.com.fiap.Floodless.model.MudancaNivelRisco;
 import br.com.fiap.Floodless.model.entities.Regiao;
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.model.enums.StatusEnriquecimento;
 import br.com.fiap.Floodless.repositories.RegiaoRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Service
 public class RegiaoService {
     private static final Logger logger = LoggerFactory.getLogger(RegiaoService.class);
-    private static final Duration INTERVALO_ATUALIZACAO = Duration.ofMinutes(2);
-    private LocalDateTime ultimaAtualizacao;
+
+    // Número de regiões consultadas simultaneamente durante a atualização automática
+    @Value("${floodless.atualizacao.concorrencia:8}")
+    private int concorrencia;
+
+    // Quantidade de regiões enviadas em cada chamada ao Open-Meteo
+    @Value("${floodless.open-meteo.regioes-por-requisicao:50}")
+    private int regioesPorRequisicao;
+
+    // Quantidade de regiões gravadas por transação
+    @Value("${floodless.atualizacao.tamanho-lote:50}")
+    private int tamanhoLote;
 
     @Autowired
     private RegiaoRepository regiaoRepository;
@@ -29,6 +49,12 @@ public class RegiaoService {
     @Autowired
     private ClimaService climaService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PrevisaoRiscoService previsaoRiscoService;
+
     @Transactional
     public RegiaoResponseDTO criarDTO(RegiaoRequestDTO dto) {
         Regiao regiao = new Regiao();
@@ -58,6 +84,22 @@ public class RegiaoService {
         return regiaoRepository.save(regiao);
     }
 
+    // Salva a região sem dados climáticos; o enriquecimento roda em segundo plano após o commit
+    @Transactional
+    public RegiaoResponseDTO criarAssincronoDTO(RegiaoRequestDTO dto) {
+        Regiao regiao = new Regiao();
+        regiao.setNome(dto.nome());
+        regiao.setEstado(dto.estado());
+        regiao.setCidade(dto.cidade());
+        regiao.setBairro(dto.bairro());
+        regiao.setCep(dto.cep());
+        regiao.setStatusEnriquecimento(StatusEnriquecimento.PENDENTE);
+
+        regiao = regiaoRepository.save(regiao);
+        eventPublisher.publishEvent(new EnriquecimentoRegiaoService.EnriquecimentoSolicitado(regiao.getId()));
+        return new RegiaoResponseDTO(regiao);
+    }
+
     @Transactional(readOnly = true)
     public List<RegiaoResponseDTO> listarTodosDTO() {
         return regiaoRepository.findAll().stream()
@@ -94,9 +136,28 @@ public class RegiaoService {
         regiao.setBairro(dto.bairro());
         regiao.setCep(dto.cep());
 
+        NivelRisco nivelAnterior = regiao.getNivelRisco();
         climaService.atualizarDadosClimaticos(regiao);
 
         regiao = regiaoRepository.save(regiao);
+        publicarMudanca(regiao.getId(), nivelAnterior, regiao.getNivelRisco());
+        return new RegiaoResponseDTO(regiao);
+    }
+
+    @Transactional
+    public RegiaoResponseDTO atualizarAssincronoDTO(Long id, RegiaoRequestDTO dto) {
+        Regiao regiao = regiaoRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Região não encontrada"));
+
+        regiao.setNome(dto.nome());
+        regiao.setEstado(dto.estado());
+        regiao.setCidade(dto.cidade());
+        regiao.setBairro(dto.bairro());
+        regiao.setCep(dto.cep());
+        regiao.setStatusEnriquecimento(StatusEnriquecimento.PENDENTE);
+
+        regiao = regiaoRepository.save(regiao);
+        eventPublisher.publishEvent(new EnriquecimentoRegiaoService.EnriquecimentoSolicitado(regiao.getId()));
         return new RegiaoResponseDTO(regiao);
     }
 
@@ -111,9 +172,12 @@ public class RegiaoService {
         regiao.setBairro(dto.bairro());
         regiao.setCep(dto.cep());
 
+        NivelRisco nivelAnterior = regiao.getNivelRisco();
         climaService.atualizarDadosClimaticos(regiao);
 
-        return regiaoRepository.save(regiao);
+        regiao = regiaoRepository.save(regiao);
+        publicarMudanca(regiao.getId(), nivelAnterior, regiao.getNivelRisco());
+        return regiao;
     }
 
     @Transactional
@@ -122,53 +186,70 @@ public class RegiaoService {
             throw new EntityNotFoundException("Região não encontrada");
         }
         regiaoRepository.deleteById(id);
+        previsaoRiscoService.descartar(id);
     }
 
-    @Scheduled(fixedRate = 3600000) // Executa a cada 1 hora
-    public void atualizarTodasRegioes() {
-        // Verifica se já passou tempo suficiente desde a última atualização
-        if (ultimaAtualizacao != null && 
-            Duration.between(ultimaAtualizacao, LocalDateTime.now()).compareTo(INTERVALO_ATUALIZACAO) < 0) {
-            logger.info("Ignorando atualização automática - intervalo mínimo não atingido");
-            return;
-        }
+    // Consulta os dados climáticos das regiões informadas e persiste o resultado em lotes
+    public void atualizarRegioes(List<Regiao> regioes) {
+        long inicio = System.nanoTime();
+
+        AtomicInteger sucessos = new AtomicInteger();
+        AtomicInteger falhas = new AtomicInteger();
+        AtomicInteger falhasPersistencia = new AtomicInteger();
+
+        // Níveis antes da consulta, para publicar as mudanças de risco depois de gravar cada lote
+        Map<Long, NivelRisco> niveisAnteriores = new HashMap<>();
+        regioes.forEach(r -> niveisAnteriores.put(r.getId(), r.getNivelRisco()));
+
+        // Agrupa as regiões para o Open-Meteo e consulta os grupos com concorrência limitada;
+        // o espaçamento por provedor fica no ClimaService
+        Flux.fromIterable(regioes)
+                .buffer(regioesPorRequisicao)
+                .flatMap(grupo -> climaService.atualizarDadosClimaticosEmLote(grupo)
+                        .doOnNext(atualizadas -> {
+                            sucessos.addAndGet(atualizadas);
+                            falhas.addAndGet(grupo.size() - atualizadas);
+                        })
+                        .onErrorResume(e -> {
+                            falhas.addAndGet(grupo.size());
+                            logger.error("Erro ao atualizar grupo de {} regiões: {} - {}",
+                                    grupo.size(), e.getClass().getSimpleName(), e.getMessage());
+                            return Mono.empty();
+                        })
+                        .thenReturn(grupo), concorrencia)
+                .flatMapIterable(grupo -> grupo)
+                .buffer(tamanhoLote)
+                .concatMap(lote -> Mono.fromRunnable(() -> salvarLote(lote, niveisAnteriores, falhasPersistencia))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .blockLast();
+
+        Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+        logger.info("Atualização automática concluída em {}s para {} regiões. Sucessos: {}, Falhas: {}, Falhas de persistência: {}",
+                duracao.toSeconds(), regioes.size(), sucessos.get(), falhas.get(), falhasPersistencia.get());
 
-        logger.info("Iniciando atualização automática de todas as regiões");
-        List<Regiao> regioes = regiaoRepository.findAll();
-        
-        int sucessos = 0;
-        int falhas = 0;
-        
-        for (Regiao regiao : regioes) {
-            try {
-                logger.info("Atualizando dados climáticos para região: {} ({}/{})", 
-                    regiao.getNome(), sucessos + falhas + 1, regioes.size());
-                    
-                climaService.atualizarDadosClimaticos(regiao);
-                regiaoRepository.save(regiao);
-                
-                // Aumenta o delay entre atualizações para 2 minutos
-                Thread.sleep(120000);
-                
-                sucessos++;
-                logger.info("Atualização concluída para região: {}", regiao.getNome());
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                logger.error("Processo de atualização interrompido");
-                break;
-            } catch (Exception e) {
-                falhas++;
-                logger.error("Erro ao atualizar região {}: {} - {}", 
-                    regiao.getNome(), e.getClass().getSimpleName(), e.getMessage());
-            }
-        }
-        
-        ultimaAtualizacao = LocalDateTime.now();
-        logger.info("Atualização automática concluída. Sucessos: {}, Falhas: {}", sucessos, falhas);
-        
         // Se todas as atualizações falharam, registra um alerta
-        if (falhas == regioes.size()) {
+        if (!regioes.isEmpty() && falhas.get() == regioes.size()) {
             logger.error("ALERTA: Todas as atualizações de região falharam. Possível problema com as APIs externas.");
         }
     }
-} 
\ No newline at end of file
+
+    private void salvarLote(List<Regiao> lote, Map<Long, NivelRisco> niveisAnteriores, AtomicInteger falhasPersistencia) {
+        try {
+            regiaoRepository.atualizarDadosClimaticosEmLote(lote);
+            logger.info("Lote de {} regiões persistido", lote.size());
+        } catch (Exception e) {
+            falhasPersistencia.addAndGet(lote.size());
+            logger.error("Erro ao persistir lote de {} regiões: {} - {}",
+                    lote.size(), e.getClass().getSimpleName(), e.getMessage());
+            return;
+        }
+        lote.forEach(r -> publicarMudanca(r.getId(), niveisAnteriores.get(r.getId()), r.getNivelRisco()));
+    }
+
+    // Dentro de uma transação o evento só é entregue após o commit (AlertaRiscoService)
+    private void publicarMudanca(Long regiaoId, NivelRisco anterior, NivelRisco atual) {
+        if (MudancaNivelRisco.houveMudanca(anterior, atual)) {
+            eventPublisher.publishEvent(new MudancaNivelRisco(regiaoId, anterior, atual, LocalDateTime.now()));
+        }
+    }
+}
\ No newline at end of file
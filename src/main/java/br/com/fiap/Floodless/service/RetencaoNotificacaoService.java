@@ -0,0 +1,239 @@
+package br.com.fiap.Floodless.service;
+
+import br.com.fiap.Floodless.model.enums.TipoNotificacao;
+import br.com.fiap.Floodless.repositories.LeituraNotificacaoRepository;
+import br.com.fiap.Floodless.repositories.NotificacaoArquivadaRepository;
+import br.com.fiap.Floodless.repositories.NotificacaoArquivadaRepositoryCustom.NotificacaoExpirada;
+import br.com.fiap.Floodless.repositories.RegiaoRepository;
+import br.com.fiap.Floodless.repositories.UsuarioRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// Move para TB_FLOODLESS_NOTIFICACAO_ARQUIVO as notificações que passaram do prazo de retenção do
+// seu tipo (floodless.retencao.dias.<TIPO>). Cada lote é reservado com SKIP LOCKED e arquivado em
+// uma transação curta própria, de modo que o job nunca segura bloqueios por mais que um lote e pode
+// ser interrompido a qualquer momento sem deixar trabalho pela metade. O andamento fica em /actuator/retencao.
+@Service
+public class RetencaoNotificacaoService {
+    private static final Logger logger = LoggerFactory.getLogger(RetencaoNotificacaoService.class);
+
+    // Limite de itens em uma lista IN do Oracle
+    private static final int TAMANHO_MAXIMO_LOTE = 1000;
+
+    @Autowired
+    private NotificacaoArquivadaRepository notificacaoArquivadaRepository;
+
+    @Autowired
+    private LeituraNotificacaoRepository leituraNotificacaoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RegiaoRepository regiaoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Environment environment;
+
+    // Prazo dos tipos sem floodless.retencao.dias.<TIPO> próprio
+    @Value("${floodless.retencao.dias-padrao:90}")
+    private int diasPadrao;
+
+    // Notificações pessoais não lidas ficam até este prazo, mesmo que o do tipo seja menor
+    @Value("${floodless.retencao.dias-maximo-nao-lidas:365}")
+    private int diasMaximoNaoLidas;
+
+    @Value("${floodless.retencao.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    // Folga entre lotes para não disputar o banco com o tráfego normal
+    @Value("${floodless.retencao.pausa-entre-lotes-ms:100}")
+    private long pausaEntreLotesMs;
+
+    @Value("${floodless.retencao.timeout-lote-segundos:30}")
+    private int timeoutLoteSegundos;
+
+    private final Map<TipoNotificacao, Integer> diasRetencao = new EnumMap<>(TipoNotificacao.class);
+    private final AtomicBoolean emExecucao = new AtomicBoolean(false);
+    private TransactionTemplate transacaoLote;
+
+    // Andamento da execução atual (ou da última)
+    private volatile LocalDateTime inicio;
+    private volatile LocalDateTime fim;
+    private volatile TipoNotificacao tipoAtual;
+    private volatile int lotes;
+    private volatile String ultimoErro;
+    private final Map<TipoNotificacao, Long> arquivadasPorTipo = Collections.synchronizedMap(new EnumMap<>(TipoNotificacao.class));
+
+    @PostConstruct
+    public void configurar() {
+        for (TipoNotificacao tipo : TipoNotificacao.values()) {
+            int dias = environment.getProperty("floodless.retencao.dias." + tipo.name(), Integer.class, diasPadrao);
+            if (dias <= 0) {
+                throw new IllegalArgumentException("Retenção de " + tipo + " deve ser maior que zero");
+            }
+            diasRetencao.put(tipo, dias);
+        }
+        tamanhoLote = Math.max(1, Math.min(tamanhoLote, TAMANHO_MAXIMO_LOTE));
+
+        transacaoLote = new TransactionTemplate(transactionManager);
+        transacaoLote.setTimeout(timeoutLoteSegundos);
+    }
+
+    @Scheduled(cron = "${floodless.retencao.cron:0 30 3 * * *}")
+    public void executarAgendado() {
+        if (!emExecucao.compareAndSet(false, true)) {
+            logger.info("Retenção de notificações já em execução; ciclo agendado ignorado");
+            return;
+        }
+        executarReservado();
+    }
+
+    // Disparo manual (POST /actuator/retencao); roda em uma thread própria e retorna false se já estiver em execução
+    public boolean iniciar() {
+        if (!emExecucao.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread thread = new Thread(this::executarReservado, "retencao-notificacoes");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    public ProgressoRetencao progresso() {
+        Map<TipoNotificacao, Long> porTipo;
+        synchronized (arquivadasPorTipo) {
+            porTipo = new EnumMap<>(arquivadasPorTipo);
+        }
+        long total = porTipo.values().stream().mapToLong(Long::longValue).sum();
+        return new ProgressoRetencao(emExecucao.get(), inicio, fim, tipoAtual, lotes, total, porTipo,
+                ultimoErro, Collections.unmodifiableMap(diasRetencao));
+    }
+
+    private void executarReservado() {
+        inicio = LocalDateTime.now();
+        fim = null;
+        lotes = 0;
+        ultimoErro = null;
+        arquivadasPorTipo.clear();
+        try {
+            for (TipoNotificacao tipo : TipoNotificacao.values()) {
+                tipoAtual = tipo;
+                arquivarTipo(tipo);
+            }
+            logger.info("Retenção concluída: {} notificações arquivadas em {} lotes", progresso().arquivadas(), lotes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ultimoErro = "Execução interrompida";
+        } catch (Exception e) {
+            ultimoErro = e.getClass().getSimpleName() + " - " + e.getMessage();
+            logger.error("Erro na retenção de notificações ({}): {}", tipoAtual, ultimoErro);
+        } finally {
+            tipoAtual = null;
+            fim = LocalDateTime.now();
+            emExecucao.set(false);
+        }
+    }
+
+    private void arquivarTipo(TipoNotificacao tipo) throws InterruptedException {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime limite = agora.minusDays(diasRetencao.get(tipo));
+        LocalDateTime limiteNaoLidas = agora.minusDays(Math.max(diasRetencao.get(tipo), diasMaximoNaoLidas));
+
+        while (true) {
+            Integer arquivadas = transacaoLote.execute(status -> arquivarLote(tipo, limite, limiteNaoLidas));
+            if (arquivadas == null || arquivadas == 0) {
+                return;
+            }
+            lotes++;
+            arquivadasPorTipo.merge(tipo, arquivadas.longValue(), Long::sum);
+            logger.debug("Retenção {}: lote de {} notificações arquivado", tipo, arquivadas);
+
+            // Lote incompleto: as demais estão bloqueadas por outra transação ou não há mais expiradas
+            if (arquivadas < tamanhoLote) {
+                return;
+            }
+            if (pausaEntreLotesMs > 0) {
+                Thread.sleep(pausaEntreLotesMs);
+            }
+        }
+    }
+
+    // Ordem das travas igual à dos fluxos do usuário (NotificacaoService): contadores dos usuários,
+    // contadores das regiões, em ordem de id, e só então as notificações e o bitmap de leitura. As
+    // candidatas são lidas sem travar; as travadas por outra transação ficam para o próximo lote.
+    private int arquivarLote(TipoNotificacao tipo, LocalDateTime limite, LocalDateTime limiteNaoLidas) {
+        List<NotificacaoExpirada> candidatas =
+                notificacaoArquivadaRepository.buscarExpiradas(tipo, limite, limiteNaoLidas, tamanhoLote);
+        if (candidatas.isEmpty()) {
+            return 0;
+        }
+        candidatas.stream()
+                .map(NotificacaoExpirada::usuarioId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .forEach(usuarioRepository::travarContadores);
+        candidatas.stream()
+                .filter(n -> n.usuarioId() == null)
+                .map(NotificacaoExpirada::regiaoId)
+                .distinct()
+                .sorted()
+                .forEach(regiaoRepository::travarContador);
+
+        List<NotificacaoExpirada> expiradas = notificacaoArquivadaRepository.reservar(
+                candidatas.stream().map(NotificacaoExpirada::id).toList(), tipo, limite, limiteNaoLidas);
+        if (expiradas.isEmpty()) {
+            return 0;
+        }
+
+        // Contadores do usuário e da região deixam de considerar as notificações arquivadas
+        List<Long> daRegiao = expiradas.stream()
+                .filter(n -> n.usuarioId() == null)
+                .map(NotificacaoExpirada::id)
+                .toList();
+        leituraNotificacaoRepository.descontarLeituras(daRegiao);
+        expiradas.stream()
+                .filter(n -> n.usuarioId() == null)
+                .collect(Collectors.groupingBy(NotificacaoExpirada::regiaoId, Collectors.counting()))
+                .forEach((regiaoId, quantidade) -> regiaoRepository.somarNotificacoesRegiao(regiaoId, -quantidade));
+        expiradas.stream()
+                .filter(n -> n.usuarioId() != null && !n.lida())
+                .collect(Collectors.groupingBy(NotificacaoExpirada::usuarioId, Collectors.counting()))
+                .forEach((usuarioId, quantidade) -> usuarioRepository.somarNaoLidasPessoais(usuarioId, -quantidade));
+
+        return notificacaoArquivadaRepository.arquivar(expiradas.stream().map(NotificacaoExpirada::id).toList());
+    }
+
+    public record ProgressoRetencao(
+            boolean emExecucao,
+            LocalDateTime inicio,
+            LocalDateTime fim,
+            TipoNotificacao tipoAtual,
+            int lotes,
+            long arquivadas,
+            Map<TipoNotificacao, Long> arquivadasPorTipo,
+            String ultimoErro,
+            Map<TipoNotificacao, Integer> diasRetencao
+    ) {}
+}
@@ -0,0 +1,206 @@
+package br.com.fiap.Floodless.service;
+
+import br.com.fiap.Floodless.dto.NotificacaoResponseDTO;
+import br.com.fiap.Floodless.model.entities.Notificacao;
+import br.com.fiap.Floodless.repositories.NotificacaoRepository;
+import br.com.fiap.Floodless.repositories.RegiaoRepository;
+import br.com.fiap.Floodless.repositories.UsuarioRepository;
+import br.com.fiap.Floodless.util.PosicaoTransmissao;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Envia as notificações recém-gravadas aos clientes inscritos via SSE, por usuário (notificações
+// pessoais) ou por região (notificações da região inteira, sem usuário). As conexões ficam abertas
+// em modo assíncrono do servlet, sem uma thread por cliente; o envio roda em um executor próprio
+// depois do commit. O registro é local da instância; o id de cada evento é a posição
+// (dataCriacao, id) da notificação, e ao reconectar com Last-Event-ID o cliente recebe o que foi
+// gravado depois dessa posição, inclusive por outras instâncias. Os ids vêm de uma sequência com
+// cache por instância e não seguem a ordem de commit; a data de criação também é anterior ao
+// commit, por isso o reenvio inclui as notificações da janela anterior à posição (o cliente
+// descarta as repetidas pelo id da notificação).
+@Service
+public class TransmissaoNotificacaoService {
+    private static final Logger logger = LoggerFactory.getLogger(TransmissaoNotificacaoService.class);
+
+    public record NotificacoesCriadas(List<NotificacaoResponseDTO> notificacoes) {}
+
+    // Evento "reenvio-truncado": o reenvio parou no limite e a conexão é encerrada; ao reconectar
+    // (com o id da última notificação recebida) o cliente recebe o restante
+    public record ReenvioTruncado(int reenviadas, String ultimoEventoId) {}
+
+    private final Map<Long, Set<SseEmitter>> inscritosPorUsuario = new ConcurrentHashMap<>();
+    private final Map<Long, Set<SseEmitter>> inscritosPorRegiao = new ConcurrentHashMap<>();
+
+    @Autowired
+    private NotificacaoRepository notificacaoRepository;
+
+    @Autowired
+    private RegiaoRepository regiaoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    @Qualifier("notificacaoStreamExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    @Value("${floodless.notificacoes.stream.timeout-minutos:30}")
+    private long timeoutMinutos;
+
+    @Value("${floodless.notificacoes.stream.limite-reenvio:100}")
+    private int limiteReenvio;
+
+    // Maior tempo esperado entre a criação de uma notificação e o commit da sua transação
+    @Value("${floodless.notificacoes.stream.janela-reenvio-segundos:60}")
+    private long janelaReenvioSegundos;
+
+    public SseEmitter inscrever(Long regiaoId, Long usuarioId, String ultimoEventoId) {
+        if ((regiaoId == null) == (usuarioId == null)) {
+            throw new IllegalArgumentException("Informe a região ou o usuário");
+        }
+        if (usuarioId != null && !usuarioRepository.existsById(usuarioId)) {
+            throw new EntityNotFoundException("Usuário não encontrado");
+        }
+        if (regiaoId != null && !regiaoRepository.existsById(regiaoId)) {
+            throw new EntityNotFoundException("Região não encontrada");
+        }
+
+        PosicaoTransmissao posicao = ultimoEventoId == null || ultimoEventoId.isBlank() ? null : resolverPosicao(ultimoEventoId);
+
+        SseEmitter emitter = new SseEmitter(Duration.ofMinutes(timeoutMinutos).toMillis());
+        Long chave = usuarioId != null ? usuarioId : regiaoId;
+        Map<Long, Set<SseEmitter>> inscritos = usuarioId != null ? inscritosPorUsuario : inscritosPorRegiao;
+        // Inclusão e remoção dentro do compute: o conjunto vazio sai do mapa sem perder uma inscrição concorrente
+        inscritos.compute(chave, (k, emitters) -> {
+            Set<SseEmitter> conjunto = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            conjunto.add(emitter);
+            return conjunto;
+        });
+        Runnable remover = () -> inscritos.computeIfPresent(chave, (k, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+        emitter.onCompletion(remover);
+        emitter.onTimeout(remover);
+        emitter.onError(e -> remover.run());
+
+        // A inscrição vem antes do reenvio: uma notificação gravada no meio pode chegar duas vezes
+        // (o cliente descarta pelo id), mas nunca se perde
+        if (posicao != null) {
+            reenviar(emitter, regiaoId, usuarioId, posicao);
+        }
+        return emitter;
+    }
+
+    // Clientes conectados antes da mudança do formato enviam o id numérico da notificação
+    private PosicaoTransmissao resolverPosicao(String ultimoEventoId) {
+        if (ultimoEventoId.length() <= 18 && ultimoEventoId.chars().allMatch(Character::isDigit)) {
+            return notificacaoRepository.findById(Long.parseLong(ultimoEventoId))
+                    .map(n -> new PosicaoTransmissao(n.getDataCriacao(), n.getId()))
+                    .orElse(null);
+        }
+        return PosicaoTransmissao.decodificar(ultimoEventoId);
+    }
+
+    private void reenviar(SseEmitter emitter, Long regiaoId, Long usuarioId, PosicaoTransmissao posicao) {
+        LocalDateTime desde = posicao.dataCriacao().minusSeconds(janelaReenvioSegundos);
+        List<Notificacao> atrasadas = usuarioId != null
+                ? notificacaoRepository.findAtrasadasUsuario(usuarioId, desde, posicao.dataCriacao(), posicao.id(), Limit.of(limiteReenvio))
+                : notificacaoRepository.findAtrasadasRegiao(regiaoId, desde, posicao.dataCriacao(), posicao.id(), Limit.of(limiteReenvio));
+        List<Notificacao> perdidas = usuarioId != null
+                ? notificacaoRepository.findReenvioUsuario(usuarioId, posicao.dataCriacao(), posicao.id(), Limit.of(limiteReenvio + 1))
+                : notificacaoRepository.findReenvioRegiao(regiaoId, posicao.dataCriacao(), posicao.id(), Limit.of(limiteReenvio + 1));
+
+        // Sem id de evento: a posição do cliente não volta para trás
+        atrasadas.forEach(n -> enviar(emitter, NotificacaoResponseDTO.fromEntity(n), false));
+
+        boolean truncado = perdidas.size() > limiteReenvio;
+        List<Notificacao> reenviadas = truncado ? perdidas.subList(0, limiteReenvio) : perdidas;
+        reenviadas.forEach(n -> enviar(emitter, NotificacaoResponseDTO.fromEntity(n), true));
+
+        if (truncado) {
+            Notificacao ultima = reenviadas.get(reenviadas.size() - 1);
+            String ultimoEventoId = new PosicaoTransmissao(ultima.getDataCriacao(), ultima.getId()).codificar();
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("reenvio-truncado")
+                        .data(new ReenvioTruncado(reenviadas.size(), ultimoEventoId)));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoCriarNotificacoes(NotificacoesCriadas evento) {
+        if (inscritosPorUsuario.isEmpty() && inscritosPorRegiao.isEmpty()) {
+            return;
+        }
+        try {
+            executor.execute(() -> distribuir(evento.notificacoes()));
+        } catch (TaskRejectedException e) {
+            // Os clientes recebem as notificações ao reconectar com Last-Event-ID
+            logger.warn("Fila de envio SSE cheia, {} notificações não foram transmitidas", evento.notificacoes().size());
+        }
+    }
+
+    // Comentário SSE periódico para manter a conexão viva em proxies e detectar clientes desconectados
+    @Scheduled(fixedRateString = "${floodless.notificacoes.stream.heartbeat-ms:15000}")
+    public void enviarHeartbeat() {
+        inscritosPorUsuario.values().forEach(emitters -> emitters.forEach(this::enviarHeartbeat));
+        inscritosPorRegiao.values().forEach(emitters -> emitters.forEach(this::enviarHeartbeat));
+    }
+
+    private void distribuir(List<NotificacaoResponseDTO> notificacoes) {
+        for (NotificacaoResponseDTO notificacao : notificacoes) {
+            Set<SseEmitter> emitters = notificacao.usuarioId() != null
+                    ? inscritosPorUsuario.get(notificacao.usuarioId())
+                    : inscritosPorRegiao.get(notificacao.regiaoId());
+            if (emitters != null) {
+                emitters.forEach(emitter -> enviar(emitter, notificacao, true));
+            }
+        }
+    }
+
+    private void enviar(SseEmitter emitter, NotificacaoResponseDTO notificacao, boolean comId) {
+        SseEmitter.SseEventBuilder evento = SseEmitter.event().name("notificacao").data(notificacao);
+        if (comId) {
+            evento.id(new PosicaoTransmissao(notificacao.dataCriacao(), notificacao.id()).codificar());
+        }
+        try {
+            emitter.send(evento);
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void enviarHeartbeat(SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 public class UsuarioService {
@@ -84,6 +85,10 @@ public class UsuarioService {
         usuario.setNome(usuarioAtualizado.getNome());
         usuario.setEmail(usuarioAtualizado.getEmail());
         usuario.setTelefone(usuarioAtualizado.getTelefone());
+        if (!Objects.equals(idRegiao(usuario), idRegiao(usuarioAtualizado))) {
+            // As leituras contadas eram da região anterior
+            usuarioRepository.invalidarLidasRegiao(id);
+        }
         usuario.setRegiao(usuarioAtualizado.getRegiao());
         usuario.setReceberNotificacoes(usuarioAtualizado.getReceberNotificacoes() != null ? usuarioAtualizado.getReceberNotificacoes() : usuario.getReceberNotificacoes());
         usuario.setReceberAlertas(usuarioAtualizado.getReceberAlertas() != null ? usuarioAtualizado.getReceberAlertas() : usuario.getReceberAlertas());
@@ -119,4 +124,8 @@ public class UsuarioService {
         }
         usuarioRepository.deleteById(id);
     }
-} 
\ No newline at end of file
+
+    private Long idRegiao(Usuario usuario) {
+        return usuario.getRegiao() != null ? usuario.getRegiao().getId() : null;
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.fiap.Floodless.util;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Agrupa chamadas concorrentes com a mesma chave em um único Mono em andamento ("single-flight").
+// O primeiro chamador dispara a requisição; os demais recebem o mesmo resultado sem nova chamada.
+// A entrada é removida assim que a requisição termina, então o resultado não fica em cache aqui.
+public class ChamadasCompartilhadas<K, V> {
+    private final Map<K, Mono<V>> emAndamento = new ConcurrentHashMap<>();
+
+    public Mono<V> executar(K chave, Supplier<Mono<V>> fornecedor) {
+        return Mono.defer(() -> {
+            Mono<V> existente = emAndamento.get(chave);
+            if (existente != null) {
+                return existente;
+            }
+
+            AtomicReference<Mono<V>> referencia = new AtomicReference<>();
+            Mono<V> compartilhado = Mono.defer(fornecedor)
+                    .doFinally(sinal -> emAndamento.remove(chave, referencia.get()))
+                    .cache();
+            referencia.set(compartilhado);
+
+            Mono<V> anterior = emAndamento.putIfAbsent(chave, compartilhado);
+            return anterior != null ? anterior : compartilhado;
+        });
+    }
+
+    public boolean emAndamento(K chave) {
+        return emAndamento.containsKey(chave);
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.fiap.Floodless.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Circuit breaker sem locks para um único provedor externo.
+// FECHADO: chamadas liberadas. ABERTO: chamadas recusadas até passar o tempo de espera.
+// MEIO_ABERTO: apenas uma chamada de sonda é liberada; sucesso fecha o circuito, falha reabre.
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum Estado {
+        FECHADO,
+        ABERTO,
+        MEIO_ABERTO
+    }
+
+    public record Situacao(
+        String nome,
+        Estado estado,
+        int falhasConsecutivas,
+        long aberturas,
+        long sondas,
+        long fechamentos
+    ) {}
+
+    public static class CircuitoAbertoException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public CircuitoAbertoException(String nome) {
+            super("Circuit breaker aberto para " + nome);
+        }
+    }
+
+    private final String nome;
+    private final int limiteFalhas;
+    private final long esperaNanos;
+
+    private final AtomicReference<Estado> estado = new AtomicReference<>(Estado.FECHADO);
+    private final AtomicInteger falhasConsecutivas = new AtomicInteger();
+    private final AtomicLong ultimaTransicao = new AtomicLong(System.nanoTime());
+    private final AtomicLong aberturas = new AtomicLong();
+    private final AtomicLong sondas = new AtomicLong();
+    private final AtomicLong fechamentos = new AtomicLong();
+
+    public CircuitBreaker(String nome, int limiteFalhas, Duration espera) {
+        this.nome = nome;
+        this.limiteFalhas = limiteFalhas;
+        this.esperaNanos = espera.toNanos();
+    }
+
+    // Envolve uma tentativa de chamada ao provedor: recusa com CircuitoAbertoException quando o
+    // circuito está aberto e registra sucesso ou falha conforme o resultado. O estado é conferido
+    // na inscrição, então quem espera antes (limitador de taxa) deve ficar fora do proteger.
+    public <T> Mono<T> proteger(Mono<T> chamada) {
+        return Mono.defer(() -> {
+            if (!permitirChamada()) {
+                return Mono.error(new CircuitoAbertoException(nome));
+            }
+            return chamada
+                    .doOnSuccess(valor -> registrarSucesso())
+                    .doOnError(e -> registrarFalha());
+        });
+    }
+
+    public boolean permitirChamada() {
+        Estado atual = estado.get();
+        if (atual == Estado.FECHADO) {
+            return true;
+        }
+
+        // Aberto há tempo suficiente: a primeira chamada vira sonda. Em MEIO_ABERTO a espera
+        // também vale como prazo da sonda, para o circuito não travar se ela nunca responder.
+        long desde = ultimaTransicao.get();
+        if (System.nanoTime() - desde < esperaNanos) {
+            return false;
+        }
+        if (!ultimaTransicao.compareAndSet(desde, System.nanoTime())) {
+            return false;
+        }
+        estado.set(Estado.MEIO_ABERTO);
+        sondas.incrementAndGet();
+        logger.info("Circuit breaker {} em meio-aberto, liberando chamada de sonda", nome);
+        return true;
+    }
+
+    public void registrarSucesso() {
+        falhasConsecutivas.set(0);
+        Estado anterior = estado.getAndSet(Estado.FECHADO);
+        if (anterior != Estado.FECHADO) {
+            ultimaTransicao.set(System.nanoTime());
+            fechamentos.incrementAndGet();
+            logger.info("Circuit breaker {} fechado após sonda bem-sucedida", nome);
+        }
+    }
+
+    public void registrarFalha() {
+        int falhas = falhasConsecutivas.incrementAndGet();
+        Estado atual = estado.get();
+        boolean abrir = (atual == Estado.MEIO_ABERTO)
+                || (atual == Estado.FECHADO && falhas >= limiteFalhas);
+        if (abrir && estado.compareAndSet(atual, Estado.ABERTO)) {
+            ultimaTransicao.set(System.nanoTime());
+            aberturas.incrementAndGet();
+            logger.error("ALERTA: {} falhas consecutivas em {}. Circuit breaker ativado.", falhas, nome);
+        }
+    }
+
+    public Situacao getSituacao() {
+        return new Situacao(nome, estado.get(), falhasConsecutivas.get(),
+                aberturas.get(), sondas.get(), fechamentos.get());
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.fiap.Floodless.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Posição da última notificação entregue em uma página, na ordem (urgente, dataCriacao, id)
+// decrescente. O cliente recebe apenas o token opaco e o devolve para pedir a próxima página.
+public record CursorNotificacao(boolean urgente, LocalDateTime dataCriacao, long id) {
+
+    public String codificar() {
+        String valor = (urgente ? "1" : "0") + "|" + dataCriacao + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorNotificacao decodificar(String token) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (partes.length != 3 || !(partes[0].equals("0") || partes[0].equals("1"))) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new CursorNotificacao(partes[0].equals("1"), LocalDateTime.parse(partes[1]), Long.parseLong(partes[2]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
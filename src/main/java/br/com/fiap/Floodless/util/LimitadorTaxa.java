@@ -0,0 +1,150 @@
+package br.com.fiap.Floodless.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Limitador de taxa de um provedor com fila de espera limitada e priorizada.
+// Pedidos acima da taxa aguardam na fila (sem ocupar threads) em vez de serem descartados;
+// saem por ordem de prioridade e, dentro da mesma prioridade, por ordem de chegada.
+// Um pedido falha com RequisicaoRecusadaException se o prazo vencer ou se a fila estiver cheia
+// e ele tiver prioridade menor que todos os que já aguardam.
+public class LimitadorTaxa {
+
+    public static class RequisicaoRecusadaException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public RequisicaoRecusadaException(String mensagem) {
+            super(mensagem);
+        }
+    }
+
+    private record Pedido(int prioridade, long sequencia, long entrada, long prazo, MonoSink<Void> sink) {}
+
+    private static final Comparator<Pedido> ORDEM = Comparator
+            .comparingInt(Pedido::prioridade).reversed()
+            .thenComparingLong(Pedido::sequencia);
+
+    private final String nome;
+    private final long intervaloNanos;
+    private final int capacidade;
+    private final TreeSet<Pedido> fila = new TreeSet<>(ORDEM);
+    private final AtomicLong sequencia = new AtomicLong();
+    private long proximaLiberacao = System.nanoTime();
+
+    private final Timer tempoEspera;
+    private final Counter recusasFilaCheia;
+    private final Counter recusasPrazo;
+    private final Disposable tarefaLiberacao;
+
+    public LimitadorTaxa(String nome, Duration intervalo, int capacidade, MeterRegistry meterRegistry) {
+        this.nome = nome;
+        this.intervaloNanos = intervalo.toNanos();
+        this.capacidade = capacidade;
+
+        Gauge.builder("floodless.limitador.fila", this, LimitadorTaxa::getTamanhoFila)
+                .description("Pedidos aguardando permissão do limitador")
+                .tag("provedor", nome)
+                .register(meterRegistry);
+        this.tempoEspera = Timer.builder("floodless.limitador.espera")
+                .description("Tempo de espera na fila do limitador")
+                .tag("provedor", nome)
+                .register(meterRegistry);
+        this.recusasFilaCheia = Counter.builder("floodless.limitador.recusas")
+                .tag("provedor", nome)
+                .tag("motivo", "fila_cheia")
+                .register(meterRegistry);
+        this.recusasPrazo = Counter.builder("floodless.limitador.recusas")
+                .tag("provedor", nome)
+                .tag("motivo", "prazo")
+                .register(meterRegistry);
+
+        this.tarefaLiberacao = Schedulers.parallel()
+                .schedulePeriodically(this::liberar, intervaloNanos, intervaloNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Cada inscrição entra na fila de novo, então retries também respeitam a taxa
+    public Mono<Void> adquirir(int prioridade, Duration prazo) {
+        return Mono.<Void>create(sink -> {
+            long agora = System.nanoTime();
+            Pedido pedido = new Pedido(prioridade, sequencia.incrementAndGet(), agora, agora + prazo.toNanos(), sink);
+
+            Pedido descartado = null;
+            synchronized (this) {
+                if (fila.size() >= capacidade) {
+                    Pedido pior = fila.last();
+                    if (ORDEM.compare(pedido, pior) >= 0) {
+                        recusasFilaCheia.increment();
+                        sink.error(new RequisicaoRecusadaException("Fila do limitador de " + nome + " cheia"));
+                        return;
+                    }
+                    fila.pollLast();
+                    descartado = pior;
+                }
+                fila.add(pedido);
+            }
+
+            if (descartado != null) {
+                recusasFilaCheia.increment();
+                descartado.sink().error(new RequisicaoRecusadaException("Fila do limitador de " + nome + " cheia"));
+            }
+            sink.onCancel(() -> remover(pedido));
+            liberar();
+        }).publishOn(Schedulers.parallel());
+    }
+
+    public synchronized int getTamanhoFila() {
+        return fila.size();
+    }
+
+    public void encerrar() {
+        tarefaLiberacao.dispose();
+    }
+
+    private synchronized void remover(Pedido pedido) {
+        fila.remove(pedido);
+    }
+
+    private void liberar() {
+        long agora = System.nanoTime();
+        Pedido liberado = null;
+        TreeSet<Pedido> expirados = new TreeSet<>(ORDEM);
+
+        synchronized (this) {
+            Iterator<Pedido> it = fila.iterator();
+            while (it.hasNext()) {
+                Pedido pedido = it.next();
+                if (pedido.prazo() < agora) {
+                    it.remove();
+                    expirados.add(pedido);
+                }
+            }
+
+            if (!fila.isEmpty() && agora >= proximaLiberacao) {
+                liberado = fila.pollFirst();
+                proximaLiberacao = agora + intervaloNanos;
+            }
+        }
+
+        for (Pedido pedido : expirados) {
+            recusasPrazo.increment();
+            pedido.sink().error(new RequisicaoRecusadaException("Prazo de espera no limitador de " + nome + " excedido"));
+        }
+        if (liberado != null) {
+            tempoEspera.record(agora - liberado.entrada(), TimeUnit.NANOSECONDS);
+            liberado.sink().success();
+        }
+    }
+}
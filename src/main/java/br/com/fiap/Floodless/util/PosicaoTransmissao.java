@@ -0,0 +1,28 @@
+package br.com.fiap.Floodless.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Id dos eventos SSE de notificação: posição (dataCriacao, id) da notificação enviada. O cliente
+// devolve o token no cabeçalho Last-Event-ID ao reconectar.
+public record PosicaoTransmissao(LocalDateTime dataCriacao, long id) {
+
+    public String codificar() {
+        String valor = dataCriacao + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PosicaoTransmissao decodificar(String token) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Last-Event-ID inválido");
+            }
+            return new PosicaoTransmissao(LocalDateTime.parse(partes[0]), Long.parseLong(partes[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Last-Event-ID inválido");
+        }
+    }
+}
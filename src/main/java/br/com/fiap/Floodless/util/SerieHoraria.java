@@ -0,0 +1,47 @@
+package br.com.fiap.Floodless.util;
+
+import java.nio.ByteBuffer;
+
+// Codifica as séries horárias de probabilidade e precipitação em float32 intercalados
+// (probabilidade, precipitação) por hora: 8 bytes por hora, 192 bytes para um dia.
+public final class SerieHoraria {
+    private static final int BYTES_POR_HORA = 2 * Float.BYTES;
+
+    private SerieHoraria() {}
+
+    public static byte[] codificar(double[] probabilidade, double[] precipitacao) {
+        int horas = Math.min(probabilidade.length, precipitacao.length);
+        ByteBuffer buffer = ByteBuffer.allocate(horas * BYTES_POR_HORA);
+        for (int i = 0; i < horas; i++) {
+            buffer.putFloat((float) probabilidade[i]);
+            buffer.putFloat((float) precipitacao[i]);
+        }
+        return buffer.array();
+    }
+
+    public static int horas(byte[] dados) {
+        return dados == null ? 0 : dados.length / BYTES_POR_HORA;
+    }
+
+    public static double[] probabilidade(byte[] dados) {
+        return extrair(dados, 0);
+    }
+
+    public static double[] precipitacao(byte[] dados) {
+        return extrair(dados, Float.BYTES);
+    }
+
+    // O Oracle grava um RAW vazio como NULL: série sem horas
+    private static double[] extrair(byte[] dados, int deslocamento) {
+        int horas = horas(dados);
+        double[] valores = new double[horas];
+        if (horas == 0) {
+            return valores;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(dados);
+        for (int i = 0; i < horas; i++) {
+            valores[i] = buffer.getFloat(i * BYTES_POR_HORA + deslocamento);
+        }
+        return valores;
+    }
+}
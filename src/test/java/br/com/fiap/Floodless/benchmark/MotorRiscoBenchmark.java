@@ -0,0 +1,91 @@
+package br.com.fiap.Floodless.benchmark;
+
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import br.com.fiap.Floodless.risco.LoteRisco;
+import br.com.fiap.Floodless.risco.MotorRisco;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Compara a classificação em lote do MotorRisco (arrays primitivos, sequencial e paralela) com o
+// caminho anterior, que calculava região a região gravando Double e NivelRisco em cada objeto.
+// Não roda no mvn test: após mvn test-compile, executar o main desta classe (ou org.openjdk.jmh.Main).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MotorRiscoBenchmark {
+
+    // Campos usados pelo cálculo antigo, como na entidade Regiao
+    static final class RegiaoSimulada {
+        double chuvaAtual;
+        double chuva;
+        double pancadas;
+        int codigoTempo;
+        double probabilidadeMedia;
+        double precipitacaoTotal;
+        Double nivelChuva;
+        NivelRisco nivelRisco;
+        Boolean areaRisco;
+    }
+
+    @Param({"1000", "100000"})
+    private int regioes;
+
+    private List<RegiaoSimulada> objetos;
+    private LoteRisco lote;
+
+    @Setup
+    public void preparar() {
+        Random aleatorio = new Random(42);
+        objetos = new ArrayList<>(regioes);
+        lote = new LoteRisco(regioes);
+        for (int i = 0; i < regioes; i++) {
+            RegiaoSimulada regiao = new RegiaoSimulada();
+            regiao.chuvaAtual = aleatorio.nextDouble() * 40;
+            regiao.chuva = aleatorio.nextDouble() * 20;
+            regiao.pancadas = aleatorio.nextDouble() * 10;
+            regiao.codigoTempo = aleatorio.nextInt(100);
+            regiao.probabilidadeMedia = aleatorio.nextDouble() * 100;
+            regiao.precipitacaoTotal = aleatorio.nextDouble() * 60;
+            objetos.add(regiao);
+            lote.definir(i, regiao.chuvaAtual, regiao.chuva, regiao.pancadas, regiao.codigoTempo,
+                    regiao.probabilidadeMedia, regiao.precipitacaoTotal);
+        }
+    }
+
+    @Benchmark
+    public List<RegiaoSimulada> porObjeto() {
+        for (RegiaoSimulada regiao : objetos) {
+            regiao.nivelChuva = MotorRisco.nivelChuva(regiao.chuvaAtual, regiao.chuva, regiao.pancadas,
+                    regiao.codigoTempo, regiao.probabilidadeMedia, regiao.precipitacaoTotal);
+            regiao.nivelRisco = MotorRisco.classificar(regiao.nivelChuva, MotorRisco.Limiares.PADRAO);
+            regiao.areaRisco = MotorRisco.areaRisco(regiao.nivelRisco);
+        }
+        return objetos;
+    }
+
+    @Benchmark
+    public LoteRisco loteSequencial() {
+        MotorRisco.classificar(lote, MotorRisco.Limiares.PADRAO);
+        return lote;
+    }
+
+    @Benchmark
+    public LoteRisco loteParalelo() {
+        MotorRisco.classificarParalelo(lote, MotorRisco.Limiares.PADRAO);
+        return lote;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MotorRiscoBenchmark.class.getSimpleName()).build()).run();
+    }
+}
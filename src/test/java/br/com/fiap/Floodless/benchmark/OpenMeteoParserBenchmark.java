@@ -0,0 +1,96 @@
+package br.com.fiap.Floodless.benchmark;
+
+import br.com.fiap.Floodless.model.PrevisaoOpenMeteo;
+import br.com.fiap.Floodless.service.OpenMeteoParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Compara o OpenMeteoParser (streaming) com a leitura anterior via árvore de JsonNode para uma
+// resposta em lote com "coordenadas" posições e 7 dias de série horária.
+// Não roda no mvn test: após mvn test-compile, executar o main desta classe (ou org.openjdk.jmh.Main).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpenMeteoParserBenchmark {
+    private static final int HORAS = 168;
+
+    @Param({"1", "50"})
+    private int coordenadas;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] corpo;
+
+    @Setup
+    public void montarResposta() {
+        StringBuilder json = new StringBuilder("[");
+        for (int c = 0; c < coordenadas; c++) {
+            json.append(c == 0 ? "" : ",")
+                .append("{\"latitude\":-23.5,\"longitude\":-46.6,\"current\":{\"time\":1760745600,")
+                .append("\"temperature_2m\":21.5,\"precipitation\":3.2,\"rain\":2.0,\"showers\":1.2,\"weathercode\":61},")
+                .append("\"hourly\":{\"time\":[");
+            for (int h = 0; h < HORAS; h++) {
+                json.append(h == 0 ? "" : ",").append(1760745600L + h * 3600L);
+            }
+            json.append("],\"precipitation_probability\":[");
+            for (int h = 0; h < HORAS; h++) {
+                json.append(h == 0 ? "" : ",").append(h % 100);
+            }
+            json.append("],\"precipitation\":[");
+            for (int h = 0; h < HORAS; h++) {
+                json.append(h == 0 ? "" : ",").append(String.format(Locale.ROOT, "%.1f", (h % 13) * 0.7));
+            }
+            json.append("]}}");
+        }
+        corpo = json.append("]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) throws IOException {
+        for (PrevisaoOpenMeteo previsao : OpenMeteoParser.lerPrevisoes(corpo)) {
+            blackhole.consume(somar24Horas(previsao.probabilidadeHoraria(), previsao.precipitacaoHoraria()));
+            blackhole.consume(previsao.precipitacao());
+        }
+    }
+
+    // Caminho anterior: readTree e acesso por get(i).asDouble()
+    @Benchmark
+    public void arvoreJsonNode(Blackhole blackhole) throws IOException {
+        for (JsonNode previsao : objectMapper.readTree(corpo)) {
+            JsonNode current = previsao.get("current");
+            JsonNode hourly = previsao.get("hourly");
+            JsonNode prob = hourly.get("precipitation_probability");
+            JsonNode precip = hourly.get("precipitation");
+            double soma = 0;
+            for (int h = 0; h < 24 && h < prob.size(); h++) {
+                soma += prob.get(h).asDouble() + precip.get(h).asDouble();
+            }
+            blackhole.consume(soma);
+            blackhole.consume(current.get("precipitation").asDouble());
+        }
+    }
+
+    private static double somar24Horas(double[] prob, double[] precip) {
+        double soma = 0;
+        for (int h = 0; h < 24 && h < prob.length; h++) {
+            soma += prob[h] + precip[h];
+        }
+        return soma;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OpenMeteoParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}
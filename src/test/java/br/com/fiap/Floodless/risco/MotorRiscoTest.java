@@ -0,0 +1,107 @@
+package br.com.fiap.Floodless.risco;
+
+import br.com.fiap.Floodless.model.enums.NivelRisco;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MotorRiscoTest {
+
+    private static final MotorRisco.Limiares PERFIL_ENCOSTA = new MotorRisco.Limiares(10.0, 20.0, 30.0);
+
+    @Test
+    void limiaresPrecisamSerCrescentes() {
+        assertThatThrownBy(() -> new MotorRisco.Limiares(45.0, 25.0, 65.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new MotorRisco.Limiares(25.0, 45.0, 45.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new MotorRisco.Limiares(25.0, Double.NaN, 65.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(new MotorRisco.Limiares(1.0, 2.0, 3.0).alto()).isEqualTo(2.0);
+    }
+
+    @Test
+    void classificaPelosLimitesPadrao() {
+        MotorRisco.Limiares padrao = MotorRisco.Limiares.PADRAO;
+
+        assertThat(MotorRisco.classificar(0.0, padrao)).isEqualTo(NivelRisco.BAIXO);
+        assertThat(MotorRisco.classificar(25.0, padrao)).isEqualTo(NivelRisco.BAIXO);
+        assertThat(MotorRisco.classificar(25.1, padrao)).isEqualTo(NivelRisco.MODERADO);
+        assertThat(MotorRisco.classificar(45.1, padrao)).isEqualTo(NivelRisco.ALTO);
+        assertThat(MotorRisco.classificar(65.0, padrao)).isEqualTo(NivelRisco.ALTO);
+        assertThat(MotorRisco.classificar(65.1, padrao)).isEqualTo(NivelRisco.CRITICO);
+        assertThat(MotorRisco.areaRisco(NivelRisco.ALTO)).isTrue();
+        assertThat(MotorRisco.areaRisco(NivelRisco.MODERADO)).isFalse();
+    }
+
+    @Test
+    void nivelChuvaAplicaPrevisaoProbabilidadeECodigo() {
+        // (2 + 1 + 1 + 10 * 0,5) * (1 + 50 / 100) * 1,5 (código 80)
+        assertThat(MotorRisco.nivelChuva(2, 1, 1, 80, 50, 10)).isEqualTo(20.25);
+        assertThat(MotorRisco.nivelChuva(2, 1, 1, 95, 0, 0)).isEqualTo(8.0);
+        assertThat(MotorRisco.nivelChuva(2, 1, 1, 3, 0, 0)).isEqualTo(4.0);
+    }
+
+    @Test
+    void loteUsaLimiaresDaPosicaoQuandoDefinidos() {
+        LoteRisco lote = new LoteRisco(2);
+        lote.definir(0, 20, 0, 0, 0, 0, 0);
+        lote.definir(1, 20, 0, 0, 0, 0, 0);
+        lote.definirLimiares(1, PERFIL_ENCOSTA);
+
+        MotorRisco.classificar(lote, MotorRisco.Limiares.PADRAO);
+
+        assertThat(lote.nivelRisco(0)).isEqualTo(NivelRisco.BAIXO);
+        assertThat(lote.nivelRisco(1)).isEqualTo(NivelRisco.MODERADO);
+    }
+
+    @Test
+    void classificacaoParalelaIgualASequencial() {
+        int tamanho = 50_000;
+        LoteRisco sequencial = new LoteRisco(tamanho);
+        LoteRisco paralelo = new LoteRisco(tamanho);
+        Random aleatorio = new Random(42);
+        for (int i = 0; i < tamanho; i++) {
+            double chuvaAtual = aleatorio.nextDouble() * 40;
+            double chuva = aleatorio.nextDouble() * 20;
+            double pancadas = aleatorio.nextDouble() * 10;
+            int codigo = aleatorio.nextInt(100);
+            double probabilidade = aleatorio.nextDouble() * 100;
+            double total = aleatorio.nextDouble() * 60;
+            MotorRisco.Limiares limiares = i % 7 == 0 ? PERFIL_ENCOSTA : null;
+            for (LoteRisco lote : new LoteRisco[]{sequencial, paralelo}) {
+                lote.definir(i, chuvaAtual, chuva, pancadas, codigo, probabilidade, total);
+                lote.definirLimiares(i, limiares);
+            }
+        }
+
+        MotorRisco.classificar(sequencial, MotorRisco.Limiares.PADRAO);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            MotorRisco.classificarParalelo(paralelo, MotorRisco.Limiares.PADRAO, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int i = 0; i < tamanho; i++) {
+            assertThat(paralelo.nivelChuva(i)).as("nível de chuva na posição %d", i).isEqualTo(sequencial.nivelChuva(i));
+            assertThat(paralelo.nivelRisco(i)).as("risco na posição %d", i).isEqualTo(sequencial.nivelRisco(i));
+            MotorRisco.Limiares limiares = i % 7 == 0 ? PERFIL_ENCOSTA : MotorRisco.Limiares.PADRAO;
+            assertThat(sequencial.nivelRisco(i)).isEqualTo(MotorRisco.classificar(sequencial.nivelChuva(i), limiares));
+        }
+    }
+
+    @Test
+    void loteRecusaTamanhoForaDaCapacidade() {
+        LoteRisco lote = new LoteRisco(10);
+
+        assertThatThrownBy(() -> lote.setTamanho(11)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> lote.setTamanho(-1)).isInstanceOf(IllegalArgumentException.class);
+        lote.definir(3, 1, 0, 0, 0, 0, 0);
+        assertThat(lote.getTamanho()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.fiap.Floodless.service;
+
+import br.com.fiap.Floodless.model.PrevisaoOpenMeteo;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OpenMeteoParserTest {
+
+    private static final String PREVISAO_COMPLETA = """
+            {"latitude": -23.55, "longitude": -46.63,
+             "current": {"time": 1760745600, "temperature_2m": 21.5, "precipitation": 3.2,
+                         "rain": 2.0, "showers": 1.2, "weathercode": 61},
+             "hourly_units": {"precipitation": "mm"},
+             "hourly": {"time": [1760745600, 1760749200, 1760752800],
+                        "precipitation_probability": [80, 60, 40],
+                        "precipitation": [3.2, 1.5, 0.0]}}
+            """;
+
+    @Test
+    void lePrevisaoDeUmaCoordenada() throws IOException {
+        List<PrevisaoOpenMeteo> previsoes = ler(PREVISAO_COMPLETA);
+
+        assertThat(previsoes).hasSize(1);
+        PrevisaoOpenMeteo previsao = previsoes.get(0);
+        assertThat(previsao.temperatura()).isEqualTo(21.5);
+        assertThat(previsao.precipitacao()).isEqualTo(3.2);
+        assertThat(previsao.chuva()).isEqualTo(2.0);
+        assertThat(previsao.pancadas()).isEqualTo(1.2);
+        assertThat(previsao.codigoTempo()).isEqualTo(61);
+        assertThat(previsao.probabilidadeHoraria()).containsExactly(80, 60, 40);
+        assertThat(previsao.precipitacaoHoraria()).containsExactly(3.2, 1.5, 0.0);
+        assertThat(previsao.inicioSerie()).isEqualTo(1760745600L);
+        assertThat(previsao.horaAtual()).isEqualTo(1760745600L);
+        assertThat(previsao.isCompleta()).isTrue();
+    }
+
+    @Test
+    void leArrayDeCoordenadasNaOrdemDaResposta() throws IOException {
+        String segunda = PREVISAO_COMPLETA.replace("21.5", "18.0");
+
+        List<PrevisaoOpenMeteo> previsoes = ler("[" + PREVISAO_COMPLETA + "," + segunda + "]");
+
+        assertThat(previsoes).extracting(PrevisaoOpenMeteo::temperatura).containsExactly(21.5, 18.0);
+    }
+
+    @Test
+    void camposAusentesDeixamPrevisaoIncompleta() throws IOException {
+        PrevisaoOpenMeteo semAtual = ler("""
+                {"hourly": {"precipitation_probability": [10], "precipitation": [0.1]}}
+                """).get(0);
+        PrevisaoOpenMeteo semSeries = ler("""
+                {"current": {"temperature_2m": 20, "precipitation": 0, "rain": 0, "showers": 0, "weathercode": 1}}
+                """).get(0);
+
+        assertThat(semAtual.temperatura()).isNaN();
+        assertThat(semAtual.codigoTempo()).isEqualTo(-1);
+        assertThat(semAtual.inicioSerie()).isEqualTo(-1);
+        assertThat(semAtual.horaAtual()).isEqualTo(-1);
+        assertThat(semAtual.isCompleta()).isFalse();
+        assertThat(semSeries.probabilidadeHoraria()).isNull();
+        assertThat(semSeries.isCompleta()).isFalse();
+    }
+
+    @Test
+    void valorAtualNuloViraNaN() throws IOException {
+        PrevisaoOpenMeteo previsao = ler(PREVISAO_COMPLETA
+                .replace("\"rain\": 2.0", "\"rain\": null")
+                .replace("\"weathercode\": 61", "\"weathercode\": null")).get(0);
+
+        assertThat(previsao.chuva()).isNaN();
+        assertThat(previsao.codigoTempo()).isEqualTo(-1);
+        assertThat(previsao.temperatura()).isEqualTo(21.5);
+        assertThat(previsao.isCompleta()).isFalse();
+    }
+
+    @Test
+    void horaNulaNaSerieContaComoZero() throws IOException {
+        PrevisaoOpenMeteo previsao = ler(PREVISAO_COMPLETA.replace("[3.2, 1.5, 0.0]", "[3.2, null, null]")).get(0);
+
+        assertThat(previsao.precipitacaoHoraria()).containsExactly(3.2, 0.0, 0.0);
+        assertThat(previsao.isCompleta()).isTrue();
+    }
+
+    @Test
+    void serieLongaCresceAlemDaCapacidadeInicial() throws IOException {
+        StringBuilder serie = new StringBuilder();
+        for (int h = 0; h < 168; h++) {
+            serie.append(h == 0 ? "" : ",").append(h);
+        }
+        PrevisaoOpenMeteo previsao = ler(PREVISAO_COMPLETA.replace("[80, 60, 40]", "[" + serie + "]")).get(0);
+
+        assertThat(previsao.probabilidadeHoraria()).hasSize(168);
+        assertThat(previsao.probabilidadeHoraria()[167]).isEqualTo(167.0);
+        assertThat(previsao.precipitacaoHoraria()).hasSize(3);
+    }
+
+    @Test
+    void respostaTruncadaLancaIOException() {
+        String truncada = PREVISAO_COMPLETA.substring(0, PREVISAO_COMPLETA.indexOf("1.5"));
+
+        assertThatThrownBy(() -> ler(truncada)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> ler("[" + PREVISAO_COMPLETA)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void formatoInesperadoLancaIOException() {
+        assertThatThrownBy(() -> ler("\"erro\"")).isInstanceOf(IOException.class);
+    }
+
+    private static List<PrevisaoOpenMeteo> ler(String json) throws IOException {
+        return OpenMeteoParser.lerPrevisoes(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.fiap.Floodless.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    private static final Duration ESPERA = Duration.ofMillis(50);
+
+    @Test
+    void abreAposFalhasConsecutivasERecusaChamadas() {
+        CircuitBreaker circuito = new CircuitBreaker("teste", 3, Duration.ofMinutes(1));
+        AtomicInteger chamadas = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            falhar(circuito);
+        }
+
+        assertThat(circuito.getSituacao().estado()).isEqualTo(CircuitBreaker.Estado.ABERTO);
+        assertThatThrownBy(() -> circuito.proteger(Mono.fromCallable(chamadas::incrementAndGet)).block())
+                .isInstanceOf(CircuitBreaker.CircuitoAbertoException.class);
+        assertThat(chamadas).hasValue(0);
+        assertThat(circuito.getSituacao().aberturas()).isEqualTo(1);
+    }
+
+    @Test
+    void sucessoZeraFalhasConsecutivas() {
+        CircuitBreaker circuito = new CircuitBreaker("teste", 3, Duration.ofMinutes(1));
+
+        falhar(circuito);
+        falhar(circuito);
+        circuito.proteger(Mono.just("ok")).block();
+        falhar(circuito);
+        falhar(circuito);
+
+        assertThat(circuito.getSituacao().estado()).isEqualTo(CircuitBreaker.Estado.FECHADO);
+        assertThat(circuito.getSituacao().falhasConsecutivas()).isEqualTo(2);
+    }
+
+    @Test
+    void meioAbertoLiberaUmaUnicaSondaQueFechaOCircuito() throws InterruptedException {
+        CircuitBreaker circuito = new CircuitBreaker("teste", 1, ESPERA);
+        falhar(circuito);
+        Thread.sleep(ESPERA.toMillis() * 2);
+
+        assertThat(circuito.permitirChamada()).isTrue();
+        assertThat(circuito.getSituacao().estado()).isEqualTo(CircuitBreaker.Estado.MEIO_ABERTO);
+        assertThat(circuito.permitirChamada()).isFalse();
+
+        circuito.registrarSucesso();
+        CircuitBreaker.Situacao situacao = circuito.getSituacao();
+        assertThat(situacao.estado()).isEqualTo(CircuitBreaker.Estado.FECHADO);
+        assertThat(situacao.sondas()).isEqualTo(1);
+        assertThat(situacao.fechamentos()).isEqualTo(1);
+    }
+
+    @Test
+    void falhaDaSondaReabreOCircuito() throws InterruptedException {
+        CircuitBreaker circuito = new CircuitBreaker("teste", 1, ESPERA);
+        falhar(circuito);
+        Thread.sleep(ESPERA.toMillis() * 2);
+
+        falhar(circuito);
+
+        assertThat(circuito.getSituacao().estado()).isEqualTo(CircuitBreaker.Estado.ABERTO);
+        assertThat(circuito.getSituacao().aberturas()).isEqualTo(2);
+        assertThat(circuito.permitirChamada()).isFalse();
+    }
+
+    private static void falhar(CircuitBreaker circuito) {
+        assertThatThrownBy(() -> circuito.proteger(Mono.error(new IOException("provedor fora do ar"))).block())
+                .hasCauseInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.fiap.Floodless.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorNotificacaoTest {
+
+    @Test
+    void tokenVoltaParaOMesmoCursor() {
+        CursorNotificacao cursor = new CursorNotificacao(true, LocalDateTime.of(2026, 10, 18, 14, 5, 30, 123_000_000), 4521L);
+
+        String token = cursor.codificar();
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(CursorNotificacao.decodificar(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void tokenInvalidoLancaIllegalArgumentException() {
+        assertThatThrownBy(() -> CursorNotificacao.decodificar("@@@"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorNotificacao.decodificar(token("2|2026-10-18T14:05|10")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorNotificacao.decodificar(token("1|ontem|10")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cursor inválido");
+        assertThatThrownBy(() -> CursorNotificacao.decodificar(token("0|2026-10-18T14:05|abc")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorNotificacao.decodificar(token("0|2026-10-18T14:05")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String token(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.fiap.Floodless.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LimitadorTaxaTest {
+
+    private static final Duration ESPERA_MAXIMA = Duration.ofSeconds(5);
+
+    private LimitadorTaxa limitador;
+
+    @AfterEach
+    void encerrar() {
+        if (limitador != null) {
+            limitador.encerrar();
+        }
+    }
+
+    @Test
+    void liberaPorPrioridadeEDepoisPorOrdemDeChegada() {
+        limitador = new LimitadorTaxa("teste", Duration.ofMillis(100), 10, new SimpleMeterRegistry());
+        limitador.adquirir(0, ESPERA_MAXIMA).block(ESPERA_MAXIMA);
+
+        List<String> ordem = new CopyOnWriteArrayList<>();
+        limitador.adquirir(0, ESPERA_MAXIMA).subscribe(v -> {}, e -> {}, () -> ordem.add("baixa1"));
+        limitador.adquirir(0, ESPERA_MAXIMA).subscribe(v -> {}, e -> {}, () -> ordem.add("baixa2"));
+        limitador.adquirir(3, ESPERA_MAXIMA).subscribe(v -> {}, e -> {}, () -> ordem.add("alta"));
+
+        aguardar(() -> ordem.size() == 3);
+        assertThat(ordem).containsExactly("alta", "baixa1", "baixa2");
+    }
+
+    @Test
+    void filaCheiaRecusaPedidoDeMenorPrioridade() {
+        limitador = new LimitadorTaxa("teste", Duration.ofSeconds(30), 1, new SimpleMeterRegistry());
+        limitador.adquirir(0, ESPERA_MAXIMA).block(ESPERA_MAXIMA);
+
+        AtomicReference<Throwable> erroDoDescartado = new AtomicReference<>();
+        limitador.adquirir(1, ESPERA_MAXIMA).subscribe(v -> {}, erroDoDescartado::set);
+        assertThat(limitador.getTamanhoFila()).isEqualTo(1);
+
+        // Mesma prioridade de quem já espera: recusado
+        assertThatThrownBy(() -> limitador.adquirir(1, ESPERA_MAXIMA).block(ESPERA_MAXIMA))
+                .isInstanceOf(LimitadorTaxa.RequisicaoRecusadaException.class);
+
+        // Prioridade maior: toma o lugar do pior da fila, que é recusado
+        limitador.adquirir(2, ESPERA_MAXIMA).subscribe();
+        aguardar(() -> erroDoDescartado.get() != null);
+        assertThat(erroDoDescartado.get()).isInstanceOf(LimitadorTaxa.RequisicaoRecusadaException.class);
+        assertThat(limitador.getTamanhoFila()).isEqualTo(1);
+    }
+
+    @Test
+    void prazoVencidoNaFilaRecusaPedido() {
+        limitador = new LimitadorTaxa("teste", Duration.ofMillis(200), 10, new SimpleMeterRegistry());
+        limitador.adquirir(0, ESPERA_MAXIMA).block(ESPERA_MAXIMA);
+
+        assertThatThrownBy(() -> limitador.adquirir(0, Duration.ofMillis(20)).block(ESPERA_MAXIMA))
+                .isInstanceOf(LimitadorTaxa.RequisicaoRecusadaException.class)
+                .hasMessageContaining("Prazo");
+        assertThat(limitador.getTamanhoFila()).isZero();
+    }
+
+    // Mesma composição do ClimaService: limitador antes do circuito
+    @Test
+    void recusaDoLimitadorNaoContaComoFalhaDoProvedor() {
+        limitador = new LimitadorTaxa("teste", Duration.ofSeconds(30), 1, new SimpleMeterRegistry());
+        CircuitBreaker circuito = new CircuitBreaker("teste", 1, Duration.ofSeconds(30));
+        limitador.adquirir(0, ESPERA_MAXIMA).block(ESPERA_MAXIMA);
+        limitador.adquirir(0, ESPERA_MAXIMA).subscribe();
+
+        assertThatThrownBy(() -> limitador.adquirir(0, ESPERA_MAXIMA)
+                .then(circuito.proteger(Mono.just("resposta")))
+                .block(ESPERA_MAXIMA))
+                .isInstanceOf(LimitadorTaxa.RequisicaoRecusadaException.class);
+        assertThat(circuito.getSituacao().estado()).isEqualTo(CircuitBreaker.Estado.FECHADO);
+        assertThat(circuito.getSituacao().falhasConsecutivas()).isZero();
+    }
+
+    @Test
+    void pedidoQueSaiDaFilaComCircuitoAbertoNaoChegaAoProvedor() {
+        limitador = new LimitadorTaxa("teste", Duration.ofMillis(200), 10, new SimpleMeterRegistry());
+        CircuitBreaker circuito = new CircuitBreaker("teste", 1, Duration.ofSeconds(30));
+        AtomicInteger chamadas = new AtomicInteger();
+        limitador.adquirir(0, ESPERA_MAXIMA).block(ESPERA_MAXIMA);
+
+        Mono<Integer> naFila = limitador.adquirir(0, ESPERA_MAXIMA)
+                .then(circuito.proteger(Mono.fromCallable(chamadas::incrementAndGet)));
+        AtomicReference<Throwable> erro = new AtomicReference<>();
+        naFila.subscribe(v -> {}, erro::set);
+
+        // O provedor falha enquanto o pedido ainda espera a vez
+        circuito.registrarFalha();
+        aguardar(() -> erro.get() != null);
+
+        assertThat(erro.get()).isInstanceOf(CircuitBreaker.CircuitoAbertoException.class);
+        assertThat(chamadas).hasValue(0);
+    }
+
+    private static void aguardar(java.util.function.BooleanSupplier condicao) {
+        long limite = System.nanoTime() + ESPERA_MAXIMA.toNanos();
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condição não atingida no prazo").isLessThan(limite);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.fiap.Floodless.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PosicaoTransmissaoTest {
+
+    @Test
+    void tokenVoltaParaAMesmaPosicao() {
+        PosicaoTransmissao posicao = new PosicaoTransmissao(LocalDateTime.of(2026, 10, 18, 14, 5, 30, 123_456_000), 102L);
+
+        String token = posicao.codificar();
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(token).doesNotContainPattern("^[0-9]+$");
+        assertThat(PosicaoTransmissao.decodificar(token)).isEqualTo(posicao);
+    }
+
+    @Test
+    void tokenInvalidoLancaIllegalArgumentException() {
+        assertThatThrownBy(() -> PosicaoTransmissao.decodificar("@@@"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PosicaoTransmissao.decodificar(token("ontem|10")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Last-Event-ID inválido");
+        assertThatThrownBy(() -> PosicaoTransmissao.decodificar(token("2026-10-18T14:05|abc")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PosicaoTransmissao.decodificar(token("1|2026-10-18T14:05|10")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String token(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}
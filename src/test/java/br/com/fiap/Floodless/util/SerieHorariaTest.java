@@ -0,0 +1,43 @@
+package br.com.fiap.Floodless.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SerieHorariaTest {
+
+    @Test
+    void codificaEDecodificaAsDuasSeries() {
+        double[] probabilidade = {80, 65, 0};
+        double[] precipitacao = {3.5, 1.25, 0};
+
+        byte[] dados = SerieHoraria.codificar(probabilidade, precipitacao);
+
+        assertThat(dados).hasSize(3 * 8);
+        assertThat(SerieHoraria.horas(dados)).isEqualTo(3);
+        assertThat(SerieHoraria.probabilidade(dados)).containsExactly(probabilidade);
+        assertThat(SerieHoraria.precipitacao(dados)).containsExactly(precipitacao);
+    }
+
+    @Test
+    void valoresSaoGuardadosComoFloat() {
+        byte[] dados = SerieHoraria.codificar(new double[]{33.3}, new double[]{0.1});
+
+        assertThat(SerieHoraria.precipitacao(dados)[0]).isEqualTo((double) 0.1f);
+    }
+
+    @Test
+    void seriesDeTamanhosDiferentesUsamAMenor() {
+        byte[] dados = SerieHoraria.codificar(new double[]{10, 20, 30}, new double[]{1});
+
+        assertThat(SerieHoraria.horas(dados)).isEqualTo(1);
+        assertThat(SerieHoraria.probabilidade(dados)).containsExactly(10);
+    }
+
+    @Test
+    void serieNulaOuVaziaNaoTemHoras() {
+        assertThat(SerieHoraria.horas(null)).isZero();
+        assertThat(SerieHoraria.probabilidade(null)).isEmpty();
+        assertThat(SerieHoraria.precipitacao(new byte[0])).isEmpty();
+    }
+}